@@ -1,9 +1,20 @@
 package org.example;
 
+import java.util.Arrays;
 import org.example.cli.BenchmarkRunner;
+import org.example.server.MajorityServer;
+import org.example.shard.ShardCoordinator;
 
 public class Main {
     public static void main(String[] args) {
+        if (args.length > 0 && "--server".equals(args[0])) {
+            MajorityServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && "--sharded".equals(args[0])) {
+            ShardCoordinator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         BenchmarkRunner.run(args);
     }
-}
\ No newline at end of file
+}
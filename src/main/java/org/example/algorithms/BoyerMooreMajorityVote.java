@@ -1,5 +1,6 @@
 package org.example.algorithms;
 
+import org.example.metrics.MajorityTelemetry;
 import org.example.metrics.Metrics;
 
 /**
@@ -29,6 +30,7 @@ public final class BoyerMooreMajorityVote {
         if (arr == null || arr.length == 0) {
             hasMajority = false;
             metrics.stopTimer();
+            MajorityTelemetry.record(MajorityTelemetry.STRATEGY_INTERNAL_METRICS, 0, false, metrics);
             return;
         }
 
@@ -72,6 +74,7 @@ public final class BoyerMooreMajorityVote {
         metrics.incrementAssignments();
 
         metrics.stopTimer();
+        MajorityTelemetry.record(MajorityTelemetry.STRATEGY_INTERNAL_METRICS, arr.length, hasMajority, metrics);
     }
 
     // existing getters
@@ -87,12 +90,28 @@ public final class BoyerMooreMajorityVote {
         if (m == null) {
             return majorityElement(arr);
         }
+        return findMajority(arr, arr == null ? 0 : arr.length, m);
+    }
+
+    /**
+     * Same as findMajority(arr, m) but only looks at arr[0..length), so callers can pass
+     * reused buffers that are larger than the actual input.
+     * If metrics == null, a Metrics without memory measurement is used.
+     */
+    public static Integer findMajority(int[] arr, int length, Metrics m) {
+        if (arr != null && (length < 0 || length > arr.length)) {
+            throw new IllegalArgumentException("length " + length + " out of range for array of " + arr.length);
+        }
+        if (m == null) {
+            m = new Metrics(false);
+        }
 
         m.reset();
         m.startTimer();
 
-        if (arr == null || arr.length == 0) {
+        if (arr == null || length == 0) {
             m.stopTimer();
+            MajorityTelemetry.record(MajorityTelemetry.STRATEGY_CALLER_METRICS, 0, false, m);
             return null;
         }
 
@@ -101,7 +120,8 @@ public final class BoyerMooreMajorityVote {
         m.incrementAssignments(); // for count init
 
         // Phase 1: find candidate
-        for (int num : arr) {
+        for (int i = 0; i < length; i++) {
+            int num = arr[i];
             m.incrementIterations();
 
             m.incrementComparisons();
@@ -122,7 +142,8 @@ public final class BoyerMooreMajorityVote {
         // Phase 2: verify
         int freq = 0;
         m.incrementAssignments(); // freq
-        for (int num : arr) {
+        for (int i = 0; i < length; i++) {
+            int num = arr[i];
             m.incrementIterations();
             m.incrementComparisons();
             if (num == candidateLocal) {
@@ -132,13 +153,107 @@ public final class BoyerMooreMajorityVote {
         }
 
         m.incrementComparisons();
-        boolean has = freq > arr.length / 2;
+        boolean has = freq > length / 2;
         m.incrementAssignments();
 
         m.stopTimer();
+        MajorityTelemetry.record(MajorityTelemetry.STRATEGY_CALLER_METRICS, length, has, m);
         return has ? candidateLocal : null;
     }
 
+    /**
+     * Mergeable phase-1 state: the surviving candidate and its net vote count over n elements.
+     * Merging two summaries keeps the guarantee of a single pass over both inputs (a majority,
+     * if any, is the merged candidate), so shards can be summarized independently.
+     */
+    public static final class Summary {
+        public static final Summary EMPTY = new Summary(0, 0, 0);
+
+        public final int candidate;
+        public final long count;
+        public final long n;
+
+        public Summary(int candidate, long count, long n) {
+            this.candidate = candidate;
+            this.count = count;
+            this.n = n;
+        }
+
+        /**
+         * Cancels min(count, other.count) pairs of different votes, exactly as phase 1 would.
+         */
+        public Summary merge(Summary other) {
+            long total = n + other.n;
+            if (count == 0) return new Summary(other.candidate, other.count, total);
+            if (other.count == 0 || candidate == other.candidate) {
+                return new Summary(candidate, count + (candidate == other.candidate ? other.count : 0), total);
+            }
+            if (count >= other.count) return new Summary(candidate, count - other.count, total);
+            return new Summary(other.candidate, other.count - count, total);
+        }
+
+        @Override
+        public String toString() {
+            return "Summary{candidate=" + candidate + ", count=" + count + ", n=" + n + "}";
+        }
+    }
+
+    /**
+     * Phase 1 only, over arr[0..length): returns the candidate summary without verification.
+     */
+    public static Summary summarize(int[] arr, int length, Metrics m) {
+        m.reset();
+        m.startTimer();
+
+        int candidateLocal = 0;
+        int count = 0;
+        m.incrementAssignments();
+
+        for (int i = 0; i < length; i++) {
+            int num = arr[i];
+            m.incrementIterations();
+
+            m.incrementComparisons();
+            if (count == 0) {
+                candidateLocal = num;
+                m.incrementAssignments();
+            }
+
+            m.incrementComparisons();
+            if (num == candidateLocal) {
+                count++;
+            } else {
+                count--;
+            }
+            m.incrementAssignments();
+        }
+
+        m.stopTimer();
+        return new Summary(candidateLocal, count, length);
+    }
+
+    /**
+     * Phase 2 only, over arr[0..length): counts occurrences of a given candidate.
+     */
+    public static long countOccurrences(int[] arr, int length, int candidate, Metrics m) {
+        m.reset();
+        m.startTimer();
+
+        long freq = 0;
+        m.incrementAssignments();
+        for (int i = 0; i < length; i++) {
+            m.incrementIterations();
+            m.incrementComparisons();
+            if (arr[i] == candidate) {
+                freq++;
+                m.incrementAssignments();
+            }
+        }
+
+        m.stopTimer();
+        return freq;
+    }
+
     /**
      * Existing convenience method used by tests: runs with internal metrics and returns result.
      */
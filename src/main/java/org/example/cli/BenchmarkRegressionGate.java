@@ -0,0 +1,519 @@
+package org.example.cli;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Benchmark regression gate.
+ * Compares every cell of a fresh benchmark run against a baseline recorded on the same machine
+ * and exits with code 1 when a cell got slower than the threshold allows and the confidence
+ * intervals of both runs do not overlap.
+ *
+ * Accepted inputs (detected by file extension):
+ *  - JMH JSON results (-rf json): cells are (benchmark, n, distribution); score and
+ *    scoreConfidence are taken from primaryMetric
+ *  - metrics CSV written by CsvWriter: cells are (algorithm, n) only, since the CSV has no
+ *    distribution column. Rows of a cell are treated as samples of time_ms and a 95% confidence
+ *    interval is computed from them, so runs with and without --with-majority must not share a file.
+ *
+ * Usage example:
+ *   java -cp yourapp.jar org.example.cli.BenchmarkRegressionGate --baseline baseline.csv
+ *        --current current.csv --threshold 10
+ *
+ * Both files must be in the same format. A cell needs at least --min-samples samples (default 2)
+ * on both sides to be judged; otherwise it is reported as INCONCLUSIVE and does not fail the gate.
+ * A baseline cell missing from the current run fails the gate unless --allow-missing is given.
+ *
+ * Exit codes: 0 - no regression, 1 - regression or missing cell, 2 - invalid arguments, unreadable
+ * input, mismatched formats, or no cell present in both files.
+ */
+public class BenchmarkRegressionGate {
+
+    static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+    static final int DEFAULT_MIN_SAMPLES = 2;
+
+    // two-sided 95% Student t critical values for df = 1..30
+    private static final double[] T_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    /**
+     * One benchmark cell: the score with its confidence interval.
+     * higherIsBetter is true for throughput modes and false for time-per-operation modes.
+     */
+    static final class Cell {
+        final String benchmark;
+        final int n;
+        final String distribution;
+        final double score;
+        final double low;
+        final double high;
+        final String unit;
+        final boolean higherIsBetter;
+        final int samples;
+
+        Cell(String benchmark, int n, String distribution, double score,
+             double low, double high, String unit, boolean higherIsBetter, int samples) {
+            this.benchmark = benchmark;
+            this.n = n;
+            this.distribution = distribution;
+            this.score = score;
+            this.low = Double.isNaN(low) ? score : low;
+            this.high = Double.isNaN(high) ? score : high;
+            this.unit = unit;
+            this.higherIsBetter = higherIsBetter;
+            this.samples = samples;
+        }
+
+        String key() {
+            return String.format(Locale.US, "%s|%012d|%s", benchmark, n, distribution);
+        }
+    }
+
+    enum Status { OK, IMPROVED, REGRESSION, INCONCLUSIVE, MISSING, NEW }
+
+    enum Format { JMH_JSON, METRICS_CSV }
+
+    /** Cells of one input file, keyed by Cell.key(). */
+    static final class Results {
+        final Format format;
+        final Map<String, Cell> cells;
+
+        Results(Format format, Map<String, Cell> cells) {
+            this.format = format;
+            this.cells = cells;
+        }
+    }
+
+    /** Status counts of one comparison. */
+    static final class Outcome {
+        int matched;
+        int regressions;
+        int missing;
+        int inconclusive;
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    public static int run(String[] args) {
+        String current = parseOption(args, "--current");
+        String baseline = parseOption(args, "--baseline");
+        String thresholdArg = parseOption(args, "--threshold");
+        String minSamplesArg = parseOption(args, "--min-samples");
+        boolean allowMissing = Arrays.asList(args).contains("--allow-missing");
+
+        if (current == null || baseline == null) {
+            System.err.println("Usage: BenchmarkRegressionGate --baseline <file> --current <file> [--threshold <percent>]"
+                    + " [--min-samples <k>] [--allow-missing]");
+            return 2;
+        }
+        double threshold = DEFAULT_THRESHOLD_PERCENT;
+        if (thresholdArg != null) {
+            try {
+                threshold = Double.parseDouble(thresholdArg);
+            } catch (NumberFormatException e) {
+                threshold = Double.NaN;
+            }
+            // NaN or infinity would never trip the gate, and a negative threshold flags speed-ups
+            if (!Double.isFinite(threshold) || threshold < 0) {
+                System.err.println("Invalid threshold: " + thresholdArg);
+                return 2;
+            }
+        }
+        int minSamples = DEFAULT_MIN_SAMPLES;
+        if (minSamplesArg != null) {
+            try {
+                minSamples = Math.max(2, Integer.parseInt(minSamplesArg));
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid min-samples: " + minSamplesArg);
+                return 2;
+            }
+        }
+
+        Results baselineCells;
+        Results currentCells;
+        try {
+            baselineCells = load(Path.of(baseline));
+            currentCells = load(Path.of(current));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Failed to read benchmark results: " + e.getMessage());
+            return 2;
+        }
+
+        System.out.println("Regression gate configuration:");
+        System.out.println("  baseline = " + baseline);
+        System.out.println("  current = " + current);
+        System.out.printf(Locale.US, "  threshold = %.2f%%%n", threshold);
+        System.out.println("  minSamples = " + minSamples);
+
+        if (baselineCells.format != currentCells.format) {
+            System.err.println("Baseline is " + baselineCells.format + " but current is " + currentCells.format
+                    + "; compare results of the same format.");
+            return 2;
+        }
+
+        Outcome outcome = compare(baselineCells.cells, currentCells.cells, threshold, minSamples);
+        if (outcome.matched == 0) {
+            System.err.println("No benchmark cell is present in both files.");
+            return 2;
+        }
+        if (outcome.inconclusive > 0) {
+            System.out.println(outcome.inconclusive + " cell(s) inconclusive: fewer than " + minSamples + " samples.");
+        }
+        boolean failed = false;
+        if (outcome.missing > 0) {
+            System.out.println(outcome.missing + " baseline cell(s) missing from the current run"
+                    + (allowMissing ? " (allowed)." : "."));
+            failed = !allowMissing;
+        }
+        if (outcome.regressions > 0) {
+            System.out.println(outcome.regressions + " regression(s) detected.");
+            failed = true;
+        }
+        if (failed) return 1;
+        System.out.println("No regressions detected.");
+        return 0;
+    }
+
+    /**
+     * Prints the diff table and returns the status counts.
+     */
+    static Outcome compare(Map<String, Cell> baseline, Map<String, Cell> current,
+                           double thresholdPercent, int minSamples) {
+        System.out.printf("%-72s %10s %-14s %22s %22s %9s  %s%n",
+                "benchmark", "n", "distribution", "baseline", "current", "change", "status");
+
+        Outcome outcome = new Outcome();
+        for (Cell base : baseline.values()) {
+            Cell cur = current.get(base.key());
+            if (cur == null) {
+                outcome.missing++;
+                printRow(base, base, null, Double.NaN, Status.MISSING);
+                continue;
+            }
+            outcome.matched++;
+            double slowdown = slowdownPercent(base, cur);
+            Status status = base.samples < minSamples || cur.samples < minSamples
+                    ? Status.INCONCLUSIVE
+                    : classify(base, cur, slowdown, thresholdPercent);
+            if (status == Status.REGRESSION) outcome.regressions++;
+            if (status == Status.INCONCLUSIVE) outcome.inconclusive++;
+            printRow(base, base, cur, slowdown, status);
+        }
+        for (Cell cur : current.values()) {
+            if (!baseline.containsKey(cur.key())) {
+                printRow(cur, null, cur, Double.NaN, Status.NEW);
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Relative slowdown of current vs baseline in percent; negative values mean a speed-up.
+     */
+    static double slowdownPercent(Cell base, Cell cur) {
+        if (base.score == 0) return 0;
+        double delta = base.higherIsBetter ? base.score - cur.score : cur.score - base.score;
+        return delta / Math.abs(base.score) * 100.0;
+    }
+
+    static Status classify(Cell base, Cell cur, double slowdownPercent, double thresholdPercent) {
+        boolean overlap = cur.low <= base.high && base.low <= cur.high;
+        if (overlap) return Status.OK;
+        if (slowdownPercent > thresholdPercent) return Status.REGRESSION;
+        if (slowdownPercent < -thresholdPercent) return Status.IMPROVED;
+        return Status.OK;
+    }
+
+    private static void printRow(Cell id, Cell base, Cell cur, double change, Status status) {
+        System.out.printf(Locale.US, "%-72s %10d %-14s %22s %22s %9s  %s%n",
+                id.benchmark, id.n, id.distribution,
+                formatScore(base), formatScore(cur),
+                Double.isNaN(change) ? "-" : String.format(Locale.US, "%+.2f%%", change),
+                status);
+    }
+
+    private static String formatScore(Cell c) {
+        if (c == null) return "-";
+        double err = (c.high - c.low) / 2;
+        return String.format(Locale.US, "%.4f +/- %.4f", c.score, err);
+    }
+
+    // ---------------------------------------------------------------- loading
+
+    static Results load(Path path) throws IOException {
+        String content = Files.readString(path, StandardCharsets.UTF_8);
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        Format format = name.endsWith(".json") ? Format.JMH_JSON : Format.METRICS_CSV;
+        List<Cell> cells = format == Format.JMH_JSON ? parseJmhJson(content) : parseMetricsCsv(content);
+        Map<String, Cell> byKey = new TreeMap<>();
+        for (Cell c : cells) byKey.put(c.key(), c);
+        return new Results(format, byKey);
+    }
+
+    /**
+     * Reads the metrics CSV produced by CsvWriter. Rows sharing (algorithm, n) are samples of
+     * the same cell; the cell score is their mean time_ms. The distribution is always "-".
+     */
+    static List<Cell> parseMetricsCsv(String content) {
+        String[] lines = content.split("\\R");
+        if (lines.length == 0 || lines[0].isBlank()) {
+            throw new IllegalArgumentException("empty CSV");
+        }
+        List<String> header = List.of(lines[0].trim().split(","));
+        int algorithmCol = header.indexOf("algorithm");
+        int nCol = header.indexOf("n");
+        int timeCol = header.indexOf("time_ms");
+        if (algorithmCol < 0 || nCol < 0 || timeCol < 0) {
+            throw new IllegalArgumentException("CSV must contain algorithm, n and time_ms columns");
+        }
+        int minWidth = Math.max(algorithmCol, Math.max(nCol, timeCol)) + 1;
+
+        Map<String, List<Double>> samples = new LinkedHashMap<>();
+        Map<String, String[]> ids = new LinkedHashMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            if (lines[i].isBlank()) continue;
+            String[] f = lines[i].trim().split(",", -1);
+            if (f.length < minWidth) {
+                throw new IllegalArgumentException("CSV line " + (i + 1) + " has " + f.length
+                        + " field(s), expected at least " + minWidth);
+            }
+            Integer.parseInt(f[nCol]); // NumberFormatException is an IllegalArgumentException
+            String id = f[algorithmCol] + "|" + f[nCol];
+            ids.putIfAbsent(id, new String[]{f[algorithmCol], f[nCol], "-"});
+            samples.computeIfAbsent(id, k -> new ArrayList<>()).add(Double.parseDouble(f[timeCol]));
+        }
+
+        List<Cell> cells = new ArrayList<>();
+        for (Map.Entry<String, List<Double>> e : samples.entrySet()) {
+            String[] id = ids.get(e.getKey());
+            List<Double> xs = e.getValue();
+            double mean = 0;
+            for (double x : xs) mean += x;
+            mean /= xs.size();
+            double halfWidth = 0;
+            if (xs.size() > 1) {
+                double var = 0;
+                for (double x : xs) var += (x - mean) * (x - mean);
+                var /= xs.size() - 1;
+                halfWidth = tCritical(xs.size() - 1) * Math.sqrt(var / xs.size());
+            }
+            cells.add(new Cell(id[0], Integer.parseInt(id[1]), id[2],
+                    mean, mean - halfWidth, mean + halfWidth, "ms/op", false, xs.size()));
+        }
+        return cells;
+    }
+
+    /**
+     * Reads JMH JSON results. Parameters other than n and distribution are folded into the
+     * benchmark label so that e.g. withMetrics=true/false stay separate cells.
+     * The sample count is the number of measurement iterations in primaryMetric.rawData.
+     */
+    static List<Cell> parseJmhJson(String content) {
+        Object root = new JsonReader(content).read();
+        if (!(root instanceof List<?> results)) {
+            throw new IllegalArgumentException("JMH JSON must be an array of results");
+        }
+        List<Cell> cells = new ArrayList<>();
+        for (Object o : results) {
+            Map<String, Object> result = asObject(o, "result");
+            String benchmark = asString(result.get("benchmark"), "benchmark");
+            String mode = asString(result.get("mode"), "mode");
+            Map<String, Object> params = result.get("params") == null
+                    ? Map.of() : asObject(result.get("params"), "params");
+            Map<String, Object> metric = asObject(result.get("primaryMetric"), "primaryMetric");
+
+            StringBuilder label = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1));
+            Map<String, Object> extra = new TreeMap<>(params);
+            extra.remove("n");
+            extra.remove("distribution");
+            if (!extra.isEmpty()) label.append(extra.toString().replace('{', '[').replace('}', ']'));
+
+            int n = params.containsKey("n") ? Integer.parseInt(String.valueOf(params.get("n"))) : 0;
+            String distribution = params.containsKey("distribution") ? String.valueOf(params.get("distribution")) : "-";
+            double score = toDouble(metric.get("score"));
+            double low = Double.NaN;
+            double high = Double.NaN;
+            if (metric.get("scoreConfidence") instanceof List<?> ci && ci.size() == 2) {
+                low = toDouble(ci.get(0));
+                high = toDouble(ci.get(1));
+            }
+            int samples = 0;
+            if (metric.get("rawData") instanceof List<?> forks) {
+                for (Object fork : forks) {
+                    if (fork instanceof List<?> iterations) samples += iterations.size();
+                }
+            }
+            cells.add(new Cell(label.toString(), n, distribution, score, low, high,
+                    String.valueOf(metric.get("scoreUnit")), "thrpt".equals(mode), samples));
+        }
+        return cells;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asObject(Object o, String what) {
+        if (!(o instanceof Map)) throw new IllegalArgumentException("JMH JSON: " + what + " must be an object");
+        return (Map<String, Object>) o;
+    }
+
+    private static String asString(Object o, String what) {
+        if (!(o instanceof String s)) throw new IllegalArgumentException("JMH JSON: " + what + " must be a string");
+        return s;
+    }
+
+    private static double toDouble(Object o) {
+        if (o instanceof Double d) return d;
+        if (o instanceof String s) return Double.parseDouble(s); // JMH writes "NaN" as a string
+        throw new IllegalArgumentException("JMH JSON: expected a number but found " + o);
+    }
+
+    static double tCritical(int df) {
+        if (df <= 0) return 0;
+        return df <= T_95.length ? T_95[df - 1] : 1.96;
+    }
+
+    private static String parseOption(String[] args, String name) {
+        for (int i = 0; i < args.length; i++) {
+            if (name.equals(args[i]) && i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Minimal JSON reader for JMH result files (objects, arrays, strings, numbers, literals).
+     * Objects become LinkedHashMap, arrays ArrayList, numbers Double.
+     */
+    private static final class JsonReader {
+        private final String s;
+        private int pos;
+
+        JsonReader(String s) { this.s = s; }
+
+        Object read() {
+            try {
+                Object value = value();
+                skipWhitespace();
+                if (pos != s.length()) throw error("trailing data");
+                return value;
+            } catch (IndexOutOfBoundsException e) {
+                throw error("unexpected end of input");
+            }
+        }
+
+        private Object value() {
+            skipWhitespace();
+            if (pos >= s.length()) throw error("unexpected end of input");
+            char c = s.charAt(pos);
+            switch (c) {
+                case '{': return object();
+                case '[': return array();
+                case '"': return string();
+                case 't': return literal("true", Boolean.TRUE);
+                case 'f': return literal("false", Boolean.FALSE);
+                case 'n': return literal("null", null);
+                default: return number();
+            }
+        }
+
+        private Map<String, Object> object() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') { pos++; return map; }
+            while (true) {
+                skipWhitespace();
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                map.put(key, value());
+                skipWhitespace();
+                if (peek() == ',') { pos++; continue; }
+                expect('}');
+                return map;
+            }
+        }
+
+        private List<Object> array() {
+            List<Object> list = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') { pos++; return list; }
+            while (true) {
+                list.add(value());
+                skipWhitespace();
+                if (peek() == ',') { pos++; continue; }
+                expect(']');
+                return list;
+            }
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (pos < s.length()) {
+                char c = s.charAt(pos++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') { sb.append(c); continue; }
+                char e = s.charAt(pos++);
+                switch (e) {
+                    case 'n': sb.append('\n'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: sb.append(e);
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        private Double number() {
+            int start = pos;
+            while (pos < s.length() && "+-.eE0123456789".indexOf(s.charAt(pos)) >= 0) pos++;
+            if (start == pos) throw error("unexpected character '" + s.charAt(pos) + "'");
+            return Double.parseDouble(s.substring(start, pos));
+        }
+
+        private Object literal(String word, Object value) {
+            if (!s.startsWith(word, pos)) throw error("expected " + word);
+            pos += word.length();
+            return value;
+        }
+
+        private void expect(char c) {
+            if (peek() != c) throw error("expected '" + c + "'");
+            pos++;
+        }
+
+        private char peek() {
+            return pos < s.length() ? s.charAt(pos) : '\0';
+        }
+
+        private void skipWhitespace() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("invalid JSON at offset " + pos + ": " + message);
+        }
+    }
+}
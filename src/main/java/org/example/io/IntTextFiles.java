@@ -0,0 +1,87 @@
+package org.example.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Reads text files of integers separated by whitespace or commas, e.g. "7, 7 -2\n8".
+ * Used by the server's file requests and by shard workers.
+ */
+public final class IntTextFiles {
+
+    private IntTextFiles() {}
+
+    /** Reads every value of the file into a new array of exactly that length. */
+    public static int[] readInts(Path path) throws IOException {
+        Values values = new Values(new int[1024], 1024, true);
+        parse(path, values);
+        return Arrays.copyOf(values.array, values.length);
+    }
+
+    /**
+     * Reads the values of the file into dst[0..maxLength) and returns how many were read.
+     * Throws IOException when the file holds more than maxLength values.
+     */
+    public static int readInts(Path path, int[] dst, int maxLength) throws IOException {
+        if (maxLength < 0 || maxLength > dst.length) {
+            throw new IllegalArgumentException("maxLength " + maxLength + " outside 0.." + dst.length);
+        }
+        Values values = new Values(dst, maxLength, false);
+        parse(path, values);
+        return values.length;
+    }
+
+    private static final class Values {
+        int[] array;
+        int length;
+        int limit;
+        final boolean grow;
+
+        Values(int[] array, int limit, boolean grow) {
+            this.array = array;
+            this.limit = limit;
+            this.grow = grow;
+        }
+    }
+
+    private static void parse(Path path, Values values) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            long value = 0;
+            boolean inNumber = false;
+            boolean negative = false;
+            while (true) {
+                int c = reader.read();
+                if (c >= '0' && c <= '9') {
+                    value = value * 10 + (c - '0');
+                    if (value > (long) Integer.MAX_VALUE + 1) throw new IOException("value out of int range in " + path);
+                    inNumber = true;
+                    continue;
+                }
+                if (inNumber) {
+                    if (!negative && value > Integer.MAX_VALUE) throw new IOException("value out of int range in " + path);
+                    if (values.length == values.limit) {
+                        if (!values.grow) throw new IOException("too many values in " + path);
+                        values.array = Arrays.copyOf(values.array, values.length * 2);
+                        values.limit = values.array.length;
+                    }
+                    values.array[values.length++] = (int) (negative ? -value : value);
+                    value = 0;
+                    inNumber = false;
+                    negative = false;
+                }
+                if (c < 0) break;
+                if (c == '-') {
+                    negative = true;
+                } else if (c == ',' || Character.isWhitespace(c)) {
+                    negative = false;
+                } else {
+                    throw new IOException("unexpected character '" + (char) c + "' in " + path);
+                }
+            }
+        }
+    }
+}
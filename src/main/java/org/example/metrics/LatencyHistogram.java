@@ -0,0 +1,88 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram for latencies in nanoseconds.
+ * Values below 16 get their own bucket, larger values are split into 8 sub-buckets
+ * per power of two, so a percentile is within ~12.5% of the recorded value.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int LINEAR = 2 * SUB_COUNT;
+    private static final int BUCKETS = LINEAR + (63 - 4) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long valueNs) {
+        long v = Math.max(0, valueNs);
+        counts.incrementAndGet(indexOf(v));
+        total.incrementAndGet();
+        long m;
+        while (v > (m = max.get()) && !max.compareAndSet(m, v)) {
+            // retry until max is updated or another thread stored a larger value
+        }
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding the given percentile (0..100), or 0 if empty.
+     */
+    public long percentile(double p) {
+        long[] snapshot = new long[BUCKETS];
+        addCountsTo(snapshot);
+        return percentile(snapshot, max.get(), p);
+    }
+
+    /**
+     * Adds this histogram's bucket counts to acc (length BUCKETS), e.g. to combine time slots.
+     */
+    void addCountsTo(long[] acc) {
+        for (int i = 0; i < BUCKETS; i++) acc[i] += counts.get(i);
+    }
+
+    static long[] newCounts() {
+        return new long[BUCKETS];
+    }
+
+    static long percentile(long[] counts, long max, double p) {
+        long n = 0;
+        for (long c : counts) n += c;
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(n * Math.min(100.0, Math.max(0.0, p)) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    public long getCount() { return total.get(); }
+    public long getMax() { return max.get(); }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.set(0);
+        max.set(0);
+    }
+
+    static int indexOf(long v) {
+        if (v < LINEAR) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB_COUNT - 1);
+        return LINEAR + (exp - 4) * SUB_COUNT + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < LINEAR) return index;
+        int exp = (index - LINEAR) / SUB_COUNT + 4;
+        int sub = (index - LINEAR) % SUB_COUNT;
+        long lower = (long) (SUB_COUNT + sub) << (exp - SUB_BITS);
+        return lower + (1L << (exp - SUB_BITS)) - 1;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder event emitted once per majority-vote call.
+ * Disabled by default; enable it in a recording, e.g.
+ *   -XX:StartFlightRecording:filename=rec.jfr,+org.example.MajorityCall#enabled=true
+ */
+@Name("org.example.MajorityCall")
+@Label("Majority Call")
+@Category({"Algorithms", "Boyer-Moore"})
+@Description("One call of the Boyer-Moore majority vote algorithm")
+@StackTrace(false)
+@Enabled(false)
+class MajorityCallEvent extends Event {
+
+    @Label("Size")
+    int size;
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    @Label("Majority Found")
+    boolean majorityFound;
+
+    @Label("Comparisons")
+    long comparisons;
+
+    @Label("Assignments")
+    long assignments;
+
+    @Label("Iterations")
+    long iterations;
+}
@@ -0,0 +1,129 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Rolling aggregates over majority-vote calls, exposed through JMX.
+ * Totals are cumulative; call rate and latency percentiles cover roughly the last minute.
+ * All updates are lock-free so that concurrent callers never block each other. A slot is
+ * cleared by the first caller that lands in it in a new period, so a few samples racing with
+ * that rotation may be lost.
+ */
+public class MajorityCallStats implements MajorityCallStatsMXBean {
+
+    private static final int RATE_WINDOW_SECONDS = 60;
+    private static final int LATENCY_SLOTS = 6;
+    private static final long LATENCY_SLOT_SECONDS = 10;
+
+    private final LongSupplier nanoClock;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder elements = new LongAdder();
+    private final LongAdder majorityFound = new LongAdder();
+
+    // per-second call counts for the rate window; slotSecond tags which second a slot belongs to
+    private final AtomicLongArray slotCount = new AtomicLongArray(RATE_WINDOW_SECONDS);
+    private final AtomicLongArray slotSecond = new AtomicLongArray(RATE_WINDOW_SECONDS);
+
+    // one latency histogram per 10-second period, tagged the same way
+    private final LatencyHistogram[] latencySlots = new LatencyHistogram[LATENCY_SLOTS];
+    private final AtomicLongArray latencyPeriod = new AtomicLongArray(LATENCY_SLOTS);
+
+    public MajorityCallStats() {
+        this(System::nanoTime);
+    }
+
+    MajorityCallStats(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        for (int i = 0; i < LATENCY_SLOTS; i++) latencySlots[i] = new LatencyHistogram();
+        clearTags();
+    }
+
+    public void record(int size, long elapsedNs, boolean found) {
+        calls.increment();
+        elements.add(size);
+        if (found) majorityFound.increment();
+
+        long second = currentSecond();
+        int slot = Math.floorMod(second, RATE_WINDOW_SECONDS);
+        long tagged = slotSecond.get(slot);
+        if (tagged != second && slotSecond.compareAndSet(slot, tagged, second)) {
+            slotCount.set(slot, 0);
+        }
+        slotCount.incrementAndGet(slot);
+
+        long period = Math.floorDiv(second, LATENCY_SLOT_SECONDS);
+        int latencySlot = Math.floorMod(period, LATENCY_SLOTS);
+        long taggedPeriod = latencyPeriod.get(latencySlot);
+        if (taggedPeriod != period && latencyPeriod.compareAndSet(latencySlot, taggedPeriod, period)) {
+            latencySlots[latencySlot].reset();
+        }
+        latencySlots[latencySlot].record(elapsedNs);
+    }
+
+    @Override public long getTotalCalls() { return calls.sum(); }
+    @Override public long getTotalElementsProcessed() { return elements.sum(); }
+    @Override public long getMajorityFoundCalls() { return majorityFound.sum(); }
+    @Override public long getLatencyP50Ns() { return windowPercentile(50); }
+    @Override public long getLatencyP90Ns() { return windowPercentile(90); }
+    @Override public long getLatencyP99Ns() { return windowPercentile(99); }
+
+    @Override
+    public long getLatencyMaxNs() {
+        long period = Math.floorDiv(currentSecond(), LATENCY_SLOT_SECONDS);
+        long max = 0;
+        for (int i = 0; i < LATENCY_SLOTS; i++) {
+            if (inLatencyWindow(i, period)) max = Math.max(max, latencySlots[i].getMax());
+        }
+        return max;
+    }
+
+    @Override
+    public double getCallRatePerSecond() {
+        long now = currentSecond();
+        long sum = 0;
+        for (int i = 0; i < RATE_WINDOW_SECONDS; i++) {
+            long age = now - slotSecond.get(i);
+            if (age >= 0 && age < RATE_WINDOW_SECONDS) sum += slotCount.get(i);
+        }
+        return sum / (double) RATE_WINDOW_SECONDS;
+    }
+
+    @Override
+    public void reset() {
+        calls.reset();
+        elements.reset();
+        majorityFound.reset();
+        for (int i = 0; i < RATE_WINDOW_SECONDS; i++) slotCount.set(i, 0);
+        for (LatencyHistogram h : latencySlots) h.reset();
+        clearTags();
+    }
+
+    private long windowPercentile(double p) {
+        long period = Math.floorDiv(currentSecond(), LATENCY_SLOT_SECONDS);
+        long[] counts = LatencyHistogram.newCounts();
+        long max = 0;
+        for (int i = 0; i < LATENCY_SLOTS; i++) {
+            if (!inLatencyWindow(i, period)) continue;
+            latencySlots[i].addCountsTo(counts);
+            max = Math.max(max, latencySlots[i].getMax());
+        }
+        return LatencyHistogram.percentile(counts, max, p);
+    }
+
+    private boolean inLatencyWindow(int slot, long period) {
+        long age = period - latencyPeriod.get(slot);
+        return age >= 0 && age < LATENCY_SLOTS;
+    }
+
+    // Long.MIN_VALUE never matches a real period, so untouched slots stay out of every window
+    private void clearTags() {
+        for (int i = 0; i < RATE_WINDOW_SECONDS; i++) slotSecond.set(i, Long.MIN_VALUE);
+        for (int i = 0; i < LATENCY_SLOTS; i++) latencyPeriod.set(i, Long.MIN_VALUE);
+    }
+
+    private long currentSecond() {
+        return Math.floorDiv(nanoClock.getAsLong(), 1_000_000_000L);
+    }
+}
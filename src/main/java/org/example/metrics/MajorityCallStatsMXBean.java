@@ -0,0 +1,27 @@
+package org.example.metrics;
+
+/**
+ * JMX view of majority-vote calls, registered as org.example:type=MajorityCallStats.
+ */
+public interface MajorityCallStatsMXBean {
+
+    long getTotalCalls();
+
+    long getTotalElementsProcessed();
+
+    long getMajorityFoundCalls();
+
+    /** Calls per second averaged over the last minute. */
+    double getCallRatePerSecond();
+
+    /** Latency percentiles and maximum over roughly the last minute (six 10-second slots). */
+    long getLatencyP50Ns();
+
+    long getLatencyP90Ns();
+
+    long getLatencyP99Ns();
+
+    long getLatencyMaxNs();
+
+    void reset();
+}
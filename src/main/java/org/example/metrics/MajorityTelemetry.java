@@ -0,0 +1,55 @@
+package org.example.metrics;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Entry point for live telemetry of majority-vote calls.
+ * Called once per call after the scan loops finish, never from inside them.
+ *
+ * - JFR: a MajorityCallEvent is committed only while a recording has the event enabled.
+ * - JMX: aggregates are collected only when started with -Dmajority.telemetry.jmx=true;
+ *   otherwise the check is a constant the JIT folds away.
+ */
+public final class MajorityTelemetry {
+
+    public static final String STRATEGY_INTERNAL_METRICS = "internal-metrics";
+    public static final String STRATEGY_CALLER_METRICS = "caller-metrics";
+
+    static final String OBJECT_NAME = "org.example:type=MajorityCallStats";
+
+    private static final boolean JMX_ENABLED = Boolean.getBoolean("majority.telemetry.jmx");
+    private static final MajorityCallStats STATS = new MajorityCallStats();
+
+    static {
+        if (JMX_ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(STATS, new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                System.err.println("Failed to register " + OBJECT_NAME + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private MajorityTelemetry() {}
+
+    public static void record(String strategy, int size, boolean majorityFound, Metrics metrics) {
+        MajorityCallEvent event = new MajorityCallEvent();
+        if (event.isEnabled()) {
+            event.size = size;
+            event.strategy = strategy;
+            event.elapsed = metrics.getElapsedNs();
+            event.majorityFound = majorityFound;
+            event.comparisons = metrics.getComparisons();
+            event.assignments = metrics.getAssignments();
+            event.iterations = metrics.getIterations();
+            event.commit();
+        }
+        if (JMX_ENABLED) {
+            STATS.record(size, metrics.getElapsedNs(), majorityFound);
+        }
+    }
+
+    public static MajorityCallStatsMXBean getStats() { return STATS; }
+}
@@ -13,23 +13,40 @@ public class Metrics {
     private long elapsedNs = 0;
     private long startMemory = 0;
     private long endMemory = 0;
+    private final boolean measureMemory;
+
+    public Metrics() {
+        this(true);
+    }
+
+    /**
+     * @param measureMemory false skips the GC and sleep around the timer; memory usage is then
+     *                      reported as 0. Use it when only counters and time are needed per call.
+     */
+    public Metrics(boolean measureMemory) {
+        this.measureMemory = measureMemory;
+    }
 
     public void incrementComparisons() { comparisons++; }
     public void incrementAssignments() { assignments++; }
     public void incrementIterations() { iterations++; }
 
     public void startTimer() {
-        System.gc();
-        try { Thread.sleep(20); } catch (InterruptedException ignored) {}
+        if (measureMemory) {
+            System.gc();
+            try { Thread.sleep(20); } catch (InterruptedException ignored) {}
+            startMemory = usedMemory();
+        }
         startTime = System.nanoTime();
-        startMemory = usedMemory();
     }
 
     public void stopTimer() {
         elapsedNs = System.nanoTime() - startTime;
-        System.gc();
-        try { Thread.sleep(20); } catch (InterruptedException ignored) {}
-        endMemory = usedMemory();
+        if (measureMemory) {
+            System.gc();
+            try { Thread.sleep(20); } catch (InterruptedException ignored) {}
+            endMemory = usedMemory();
+        }
     }
 
     private long usedMemory() {
@@ -50,6 +67,16 @@ public class Metrics {
         startMemory = endMemory = 0;
     }
 
+    /**
+     * Adds counters reported from elsewhere (e.g. a worker process) to this Metrics.
+     */
+    public void add(long comparisons, long assignments, long iterations, long elapsedNs) {
+        this.comparisons += comparisons;
+        this.assignments += assignments;
+        this.iterations += iterations;
+        this.elapsedNs += elapsedNs;
+    }
+
     public void merge(Metrics other) {
         this.comparisons += other.comparisons;
         this.assignments += other.assignments;
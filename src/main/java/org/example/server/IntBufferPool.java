@@ -0,0 +1,69 @@
+package org.example.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of int[] buffers in power-of-two size classes, shared by all request handlers.
+ * Only classes up to 2^20 ints (4 MiB) are pooled and the pool retains at most maxRetainedInts
+ * in total; larger buffers are allocated with their exact size per request and left to the GC.
+ */
+final class IntBufferPool {
+
+    private static final int MIN_SHIFT = 10;   // 1024 ints
+    private static final int MAX_SHIFT = 20;   // 1M ints
+
+    private final List<ConcurrentLinkedQueue<int[]>> classes = new ArrayList<>();
+    private final AtomicLong retainedInts = new AtomicLong();
+    private final long maxRetainedInts;
+
+    IntBufferPool(long maxRetainedInts) {
+        this.maxRetainedInts = maxRetainedInts;
+        for (int i = MIN_SHIFT; i <= MAX_SHIFT; i++) classes.add(new ConcurrentLinkedQueue<>());
+    }
+
+    /**
+     * Length of the buffer acquire(minLength) returns, i.e. the memory a request really holds.
+     */
+    static int capacityFor(int minLength) {
+        int cls = classOf(minLength);
+        return cls <= MAX_SHIFT - MIN_SHIFT ? 1 << (cls + MIN_SHIFT) : minLength;
+    }
+
+    /**
+     * Returns a buffer of capacityFor(minLength) elements; its content is unspecified.
+     */
+    int[] acquire(int minLength) {
+        int cls = classOf(minLength);
+        if (cls >= classes.size()) return new int[minLength];
+        int[] buf = classes.get(cls).poll();
+        if (buf != null) {
+            retainedInts.addAndGet(-buf.length);
+            return buf;
+        }
+        return new int[1 << (cls + MIN_SHIFT)];
+    }
+
+    void release(int[] buf) {
+        if (buf == null || Integer.bitCount(buf.length) != 1 || buf.length < 1 << MIN_SHIFT) return;
+        int cls = classOf(buf.length);
+        if (cls >= classes.size()) return;
+        if (retainedInts.addAndGet(buf.length) <= maxRetainedInts) {
+            classes.get(cls).offer(buf);
+        } else {
+            retainedInts.addAndGet(-buf.length);
+        }
+    }
+
+    long getRetainedInts() {
+        return retainedInts.get();
+    }
+
+    private static int classOf(int length) {
+        if (length <= 1 << MIN_SHIFT) return 0;
+        int shift = 32 - Integer.numberOfLeadingZeros(length - 1);
+        return shift - MIN_SHIFT;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.server;
+
+/**
+ * Wire format of the majority-query service. All numbers are big-endian.
+ *
+ * Request frame:
+ *   byte type        TYPE_INT_ARRAY or TYPE_FILE_PATH
+ *   int  length      number of ints (array) or number of UTF-8 bytes (path)
+ *   ...  payload     length ints, or the path bytes; the file holds integers separated
+ *                    by whitespace or commas
+ *
+ * Response frame (one per request, in request order per connection):
+ *   byte status      STATUS_OK or STATUS_ERROR
+ *   OK:    byte hasMajority, int candidate (0 if none), int n,
+ *          long elapsedNs, long comparisons, long assignments, long iterations
+ *   ERROR: writeUTF message
+ *
+ * Clients may pipeline: send several requests before reading the responses.
+ */
+final class MajorityProtocol {
+
+    static final byte TYPE_INT_ARRAY = 1;
+    static final byte TYPE_FILE_PATH = 2;
+
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_ERROR = 1;
+
+    static final int MAX_PATH_BYTES = 4096;
+
+    private MajorityProtocol() {}
+}
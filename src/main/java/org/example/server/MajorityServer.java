@@ -0,0 +1,518 @@
+package org.example.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.example.algorithms.BoyerMooreMajorityVote;
+import org.example.io.IntTextFiles;
+import org.example.metrics.Metrics;
+
+/**
+ * Long-running majority-query service, so one warmed-up JVM can serve many jobs.
+ * Listens on a loopback TCP port or a Unix domain socket and speaks MajorityProtocol.
+ *
+ * - every request is computed on its own virtual thread
+ * - int buffers are reused through IntBufferPool
+ * - requests may be pipelined; responses keep request order per connection
+ * - backpressure: at most maxInFlight requests and maxBufferedMb of input buffers are admitted
+ *   server-wide, and at most maxPipelined requests per connection; beyond that the server
+ *   stops reading the socket
+ * - close() stops reading, lets every connection write the responses of requests it already
+ *   read (bounded by DRAIN_TIMEOUT_MS), then closes the sockets
+ *
+ * Usage example:
+ *   java -jar yourapp.jar --server --port 7070
+ *   java -jar yourapp.jar --server --socket /tmp/majority.sock
+ */
+public class MajorityServer implements Closeable {
+
+    static final int DEFAULT_PORT = 7070;
+    static final int DEFAULT_MAX_IN_FLIGHT = 256;
+    static final int DEFAULT_MAX_PIPELINED = 64;
+    static final int DEFAULT_MAX_ELEMENTS = 1 << 26;
+    static final int DEFAULT_MAX_BUFFERED_MB = 256;
+    static final long DRAIN_TIMEOUT_MS = 5_000;
+    static final long POOL_RETAINED_INTS = 8L << 20; // 32 MiB
+
+    private static final int READ_CHUNK_BYTES = 64 * 1024;
+    private static final Response END_OF_STREAM = Response.error("end of stream");
+
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final IntBufferPool pool = new IntBufferPool(POOL_RETAINED_INTS);
+    private final Semaphore inFlight;
+    // element budget: one permit per int of buffer memory held by admitted requests
+    private final Semaphore bufferedInts;
+    private final int budgetInts;
+    private final int maxPipelined;
+    private final int maxElements;
+    private final List<Connection> connections = new ArrayList<>();
+    private final Path socketFile;
+    private Thread acceptThread;
+    private volatile boolean closed;
+
+    /** A client socket and the virtual thread serving it. */
+    private static final class Connection {
+        final SocketChannel channel;
+        final Thread thread;
+
+        Connection(SocketChannel channel, Thread thread) {
+            this.channel = channel;
+            this.thread = thread;
+        }
+    }
+
+    private MajorityServer(ServerSocketChannel serverChannel, Path socketFile,
+                           int maxInFlight, int maxPipelined, int maxBufferedMb) {
+        this.serverChannel = serverChannel;
+        this.socketFile = socketFile;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.budgetInts = (int) Math.min(Integer.MAX_VALUE, (long) maxBufferedMb * (1 << 20) / 4);
+        this.bufferedInts = new Semaphore(budgetInts);
+        this.maxPipelined = maxPipelined;
+        this.maxElements = Math.min(DEFAULT_MAX_ELEMENTS, budgetInts);
+    }
+
+    /**
+     * Binds to 127.0.0.1:port (0 picks a free port) and starts accepting connections.
+     */
+    public static MajorityServer startTcp(int port, int maxInFlight, int maxPipelined) throws IOException {
+        return startTcp(port, maxInFlight, maxPipelined, DEFAULT_MAX_BUFFERED_MB);
+    }
+
+    public static MajorityServer startTcp(int port, int maxInFlight, int maxPipelined, int maxBufferedMb) throws IOException {
+        checkLimits(maxInFlight, maxPipelined, maxBufferedMb);
+        ServerSocketChannel ch = ServerSocketChannel.open(StandardProtocolFamily.INET);
+        ch.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        return start(ch, null, maxInFlight, maxPipelined, maxBufferedMb);
+    }
+
+    /**
+     * Binds to a Unix domain socket file. A stale socket left by a previous run is replaced;
+     * any other existing file, or a socket another server still listens on, is an IOException.
+     */
+    public static MajorityServer startUnix(Path socketFile, int maxInFlight, int maxPipelined, int maxBufferedMb) throws IOException {
+        checkLimits(maxInFlight, maxPipelined, maxBufferedMb);
+        removeStaleSocket(socketFile);
+        ServerSocketChannel ch = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        ch.bind(UnixDomainSocketAddress.of(socketFile));
+        return start(ch, socketFile, maxInFlight, maxPipelined, maxBufferedMb);
+    }
+
+    private static void checkLimits(int maxInFlight, int maxPipelined, int maxBufferedMb) {
+        if (maxInFlight <= 0) throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        if (maxPipelined <= 0) throw new IllegalArgumentException("maxPipelined must be positive: " + maxPipelined);
+        if (maxBufferedMb <= 0) throw new IllegalArgumentException("maxBufferedMb must be positive: " + maxBufferedMb);
+    }
+
+    private static void removeStaleSocket(Path socketFile) throws IOException {
+        if (!Files.exists(socketFile, LinkOption.NOFOLLOW_LINKS)) return;
+        if (!Files.readAttributes(socketFile, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).isOther()) {
+            throw new IOException(socketFile + " already exists and is not a socket");
+        }
+        boolean listening;
+        try {
+            SocketChannel.open(UnixDomainSocketAddress.of(socketFile)).close();
+            listening = true;
+        } catch (IOException e) {
+            listening = false;
+        }
+        if (listening) throw new IOException("another server is listening on " + socketFile);
+        Files.delete(socketFile);
+    }
+
+    private static MajorityServer start(ServerSocketChannel ch, Path socketFile,
+                                        int maxInFlight, int maxPipelined, int maxBufferedMb) {
+        MajorityServer server = new MajorityServer(ch, socketFile, maxInFlight, maxPipelined, maxBufferedMb);
+        server.acceptThread = Thread.ofPlatform().name("majority-accept").daemon(false).start(server::acceptLoop);
+        return server;
+    }
+
+    public SocketAddress getLocalAddress() throws IOException {
+        return serverChannel.getLocalAddress();
+    }
+
+    public static void main(String[] args) {
+        int port = parseInt(args, "--port", DEFAULT_PORT);
+        String socket = parseOption(args, "--socket");
+        int maxInFlight = parseInt(args, "--max-in-flight", DEFAULT_MAX_IN_FLIGHT);
+        int maxPipelined = parseInt(args, "--max-pipelined", DEFAULT_MAX_PIPELINED);
+        int maxBufferedMb = parseInt(args, "--max-buffered-mb", DEFAULT_MAX_BUFFERED_MB);
+
+        MajorityServer server;
+        try {
+            server = socket != null
+                    ? startUnix(Path.of(socket), maxInFlight, maxPipelined, maxBufferedMb)
+                    : startTcp(port, maxInFlight, maxPipelined, maxBufferedMb);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid argument: " + e.getMessage());
+            System.err.println("Usage: MajorityServer [--port <port> | --socket <path>] [--max-in-flight <n>]"
+                    + " [--max-pipelined <n>] [--max-buffered-mb <mb>]   (limits must be positive)");
+            System.exit(2);
+            return;
+        } catch (IOException e) {
+            System.err.println("Failed to start server: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close, "majority-shutdown"));
+        try {
+            System.out.println("Majority server listening on " + server.getLocalAddress());
+        } catch (IOException ignored) {}
+        System.out.println("  maxInFlight = " + maxInFlight);
+        System.out.println("  maxPipelined = " + maxPipelined);
+        System.out.println("  maxBufferedMb = " + maxBufferedMb);
+        server.awaitTermination();
+    }
+
+    public void awaitTermination() {
+        try {
+            acceptThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            SocketChannel client;
+            try {
+                client = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (IOException e) {
+                if (!closed) System.err.println("Accept failed: " + e.getMessage());
+                continue;
+            }
+            Connection connection = new Connection(client, Thread.ofVirtual().name("majority-conn").unstarted(() -> serve(client)));
+            synchronized (connections) {
+                if (closed) {
+                    closeQuietly(client);
+                    break;
+                }
+                connections.add(connection);
+            }
+            connection.thread.start();
+        }
+    }
+
+    /**
+     * Reads requests from one connection; a companion virtual thread writes the responses
+     * in the order the requests arrived.
+     */
+    private void serve(SocketChannel client) {
+        BlockingQueue<CompletableFuture<Response>> pending = new ArrayBlockingQueue<>(maxPipelined);
+        Thread writer = Thread.ofVirtual().name("majority-writer").start(() -> writeResponses(client, pending));
+        byte[] chunk = new byte[READ_CHUNK_BYTES];
+
+        // not try-with-resources: closing the stream closes the channel, which must outlive the writer
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(client)));
+        try {
+            // after close() only frames the server already received are still processed
+            while (!closed || in.available() > 0) {
+                int type = in.read();
+                if (type < 0) break;
+                int length = in.readInt();
+
+                inFlight.acquire();
+                CompletableFuture<Response> future;
+                try {
+                    future = accept(in, (byte) type, length, chunk);
+                } catch (IOException | RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                future.whenComplete((r, t) -> inFlight.release());
+                pending.put(future);
+            }
+        } catch (EOFException | ClosedChannelException ignored) {
+            // client went away mid-frame or the server is shutting down
+        } catch (IOException | RuntimeException e) {
+            if (!closed) System.err.println("Connection failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                pending.put(CompletableFuture.completedFuture(END_OF_STREAM));
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (connections) {
+                connections.removeIf(c -> c.channel == client);
+            }
+            closeQuietly(client);
+        }
+    }
+
+    /**
+     * Reads the payload of one request (the stream is sequential, so this happens on the
+     * connection thread) and schedules the computation on a virtual thread.
+     */
+    private CompletableFuture<Response> accept(DataInputStream in, byte type, int length, byte[] chunk) throws IOException {
+        switch (type) {
+            case MajorityProtocol.TYPE_INT_ARRAY: {
+                if (length < 0 || length > maxElements) {
+                    in.skipNBytes(Math.max(0, length) * 4L);
+                    return CompletableFuture.completedFuture(Response.error("array length out of range: " + length));
+                }
+                int charge = budgetCharge(length);
+                acquireBudget(charge); // before reading the payload, so a full budget stops reading the socket
+                int[] buf;
+                try {
+                    buf = pool.acquire(length);
+                    readInts(in, buf, length, chunk);
+                } catch (IOException | RuntimeException e) {
+                    bufferedInts.release(charge);
+                    throw e;
+                }
+                return CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return compute(buf, length);
+                    } finally {
+                        pool.release(buf);
+                        bufferedInts.release(charge);
+                    }
+                }, executor);
+            }
+            case MajorityProtocol.TYPE_FILE_PATH: {
+                if (length < 0 || length > MajorityProtocol.MAX_PATH_BYTES) {
+                    in.skipNBytes(Math.max(0, length));
+                    return CompletableFuture.completedFuture(Response.error("path length out of range: " + length));
+                }
+                String path = new String(in.readNBytes(length), StandardCharsets.UTF_8);
+                return CompletableFuture.supplyAsync(() -> computeFile(Path.of(path)), executor);
+            }
+            default:
+                throw new IOException("unknown request type " + type);
+        }
+    }
+
+    // pooled buffers are rounded up; cap the charge so a request within maxElements always fits
+    private int budgetCharge(int length) {
+        return Math.max(1, Math.min(IntBufferPool.capacityFor(length), budgetInts));
+    }
+
+    private void acquireBudget(int ints) throws IOException {
+        try {
+            bufferedInts.acquire(ints);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting for buffer budget", e);
+        }
+    }
+
+    private static void readInts(DataInputStream in, int[] dst, int count, byte[] chunk) throws IOException {
+        ByteBuffer view = ByteBuffer.wrap(chunk);
+        int off = 0;
+        while (off < count) {
+            int n = Math.min(count - off, chunk.length / 4);
+            in.readFully(chunk, 0, n * 4);
+            view.clear();
+            view.asIntBuffer().get(dst, off, n);
+            off += n;
+        }
+    }
+
+    private Response compute(int[] buf, int length) {
+        Metrics metrics = new Metrics(false);
+        Integer result = BoyerMooreMajorityVote.findMajority(buf, length, metrics);
+        return Response.ok(result, length, metrics);
+    }
+
+    /**
+     * Parses a file into one buffer sized for the most values it can hold (every value takes at
+     * least one digit and one separator), so the budget is charged once and never grows.
+     */
+    private Response computeFile(Path path) {
+        int capacity;
+        try {
+            capacity = (int) Math.min(maxElements, (Files.size(path) + 1) / 2);
+        } catch (IOException e) {
+            return Response.error("cannot read " + path + ": " + e.getMessage());
+        }
+        int charge = budgetCharge(capacity);
+        try {
+            acquireBudget(charge);
+        } catch (IOException e) {
+            return Response.error(e.getMessage());
+        }
+        int[] buf = pool.acquire(capacity);
+        try {
+            int length = IntTextFiles.readInts(path, buf, capacity);
+            return compute(buf, length);
+        } catch (IOException e) {
+            return Response.error("cannot read " + path + ": " + e.getMessage());
+        } finally {
+            pool.release(buf);
+            bufferedInts.release(charge);
+        }
+    }
+
+    private void writeResponses(SocketChannel client, BlockingQueue<CompletableFuture<Response>> pending) {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(client)));
+        boolean broken = false;
+        try {
+            while (true) {
+                Response r;
+                try {
+                    r = pending.take().get();
+                } catch (ExecutionException e) {
+                    r = Response.error(String.valueOf(e.getCause()));
+                }
+                if (r == END_OF_STREAM) break;
+                if (broken) continue; // keep draining so the reader never blocks on a full queue
+                try {
+                    r.writeTo(out);
+                    if (pending.isEmpty()) out.flush();
+                } catch (IOException e) {
+                    broken = true;
+                }
+            }
+            if (!broken) out.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ignored) {
+            // client closed before the last flush
+        }
+    }
+
+    /**
+     * Stops accepting and reading, waits up to DRAIN_TIMEOUT_MS until every connection has
+     * written the responses of the requests it already read, then closes what is left.
+     */
+    @Override
+    public void close() {
+        List<Connection> open;
+        synchronized (connections) {
+            if (closed) return;
+            closed = true;
+            open = new ArrayList<>(connections);
+        }
+        closeQuietly(serverChannel);
+
+        // wakes readers blocked on the socket; each then drains its writer and closes its socket
+        for (Connection c : open) {
+            try { c.channel.shutdownInput(); } catch (IOException ignored) {}
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DRAIN_TIMEOUT_MS);
+        try {
+            for (Connection c : open) {
+                long left = deadline - System.nanoTime();
+                if (left > 0) c.thread.join(Duration.ofNanos(left));
+            }
+            executor.shutdown();
+            long left = deadline - System.nanoTime();
+            if (left <= 0 || !executor.awaitTermination(left, TimeUnit.NANOSECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        synchronized (connections) {
+            for (Connection c : connections) closeQuietly(c.channel);
+            connections.clear();
+        }
+        if (socketFile != null) {
+            try { Files.deleteIfExists(socketFile); } catch (IOException ignored) {}
+        }
+    }
+
+    private static void closeQuietly(Closeable c) {
+        try { c.close(); } catch (IOException ignored) {}
+    }
+
+    private static String parseOption(String[] args, String name) {
+        for (int i = 0; i < args.length; i++) {
+            if (name.equals(args[i]) && i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
+
+    private static int parseInt(String[] args, String name, int defaultValue) {
+        String value = parseOption(args, name);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid " + name + " argument. Using default " + defaultValue + ".");
+            return defaultValue;
+        }
+    }
+
+    static final class Response {
+        final boolean ok;
+        final Integer result;
+        final int n;
+        final long elapsedNs;
+        final long comparisons;
+        final long assignments;
+        final long iterations;
+        final String error;
+
+        private Response(boolean ok, Integer result, int n, Metrics m, String error) {
+            this.ok = ok;
+            this.result = result;
+            this.n = n;
+            this.elapsedNs = m != null ? m.getElapsedNs() : 0;
+            this.comparisons = m != null ? m.getComparisons() : 0;
+            this.assignments = m != null ? m.getAssignments() : 0;
+            this.iterations = m != null ? m.getIterations() : 0;
+            this.error = error;
+        }
+
+        static Response ok(Integer result, int n, Metrics m) { return new Response(true, result, n, m, null); }
+        static Response error(String message) { return new Response(false, null, 0, null, message); }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            if (!ok) {
+                out.writeByte(MajorityProtocol.STATUS_ERROR);
+                out.writeUTF(error);
+                return;
+            }
+            out.writeByte(MajorityProtocol.STATUS_OK);
+            out.writeBoolean(result != null);
+            out.writeInt(result != null ? result : 0);
+            out.writeInt(n);
+            out.writeLong(elapsedNs);
+            out.writeLong(comparisons);
+            out.writeLong(assignments);
+            out.writeLong(iterations);
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package org.example.shard;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+
+import org.example.algorithms.BoyerMooreMajorityVote;
+import org.example.metrics.Metrics;
+
+/**
+ * Map-reduce majority vote over shard files, using several local worker processes.
+ *
+ * Round 1: each worker summarizes its shards into (candidate, count) with phase 1 of
+ *          Boyer-Moore; the coordinator merges the summaries in shard order.
+ * Round 2: workers count only the merged candidate in every shard; it is the majority
+ *          if the total count exceeds n / 2.
+ *
+ * Shards are handed out from a shared queue, so a worker that crashes simply stops taking
+ * work and its current shard is reassigned to the remaining workers. A worker that does not
+ * answer a command within the timeout is killed and treated the same way.
+ *
+ * Usage example:
+ *   java -jar yourapp.jar --sharded --workers 4 --shards data/part-0.txt data/part-1.txt
+ *   java -jar yourapp.jar --sharded --workers 4 --timeout-ms 30000 --shard-dir data
+ */
+public class ShardCoordinator {
+
+    static final int DEFAULT_WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    static final int MAX_ATTEMPTS_PER_SHARD = 3;
+    static final long DEFAULT_COMMAND_TIMEOUT_MS = 60_000;
+
+    /**
+     * Per-worker report: which process it was, how many shard tasks it finished and the
+     * Metrics summed over those tasks.
+     */
+    public static final class WorkerReport {
+        public final int id;
+        public final long pid;
+        public final Metrics metrics = new Metrics(false);
+        public int tasksCompleted;
+        public boolean crashed;
+
+        WorkerReport(int id, long pid) {
+            this.id = id;
+            this.pid = pid;
+        }
+    }
+
+    public static final class Result {
+        public final Integer majority;
+        public final BoyerMooreMajorityVote.Summary summary;
+        public final long candidateCount;
+        public final List<WorkerReport> workers;
+
+        Result(Integer majority, BoyerMooreMajorityVote.Summary summary, long candidateCount, List<WorkerReport> workers) {
+            this.majority = majority;
+            this.summary = summary;
+            this.candidateCount = candidateCount;
+            this.workers = workers;
+        }
+    }
+
+    private static final String USAGE =
+            "Usage: ShardCoordinator [--workers <n>] [--timeout-ms <ms>] --shards <file>... | --shard-dir <dir>";
+
+    public static void main(String[] args) {
+        int workers = DEFAULT_WORKERS;
+        String workersArg = parseOption(args, "--workers");
+        if (workersArg != null) {
+            try {
+                workers = Integer.parseInt(workersArg);
+            } catch (NumberFormatException e) {
+                workers = 0;
+            }
+            if (workers <= 0) {
+                System.err.println("Invalid --workers argument: " + workersArg + " (must be a positive integer)");
+                System.err.println(USAGE);
+                System.exit(2);
+                return;
+            }
+        }
+        long timeoutMs = DEFAULT_COMMAND_TIMEOUT_MS;
+        String timeoutArg = parseOption(args, "--timeout-ms");
+        if (timeoutArg != null) {
+            try {
+                timeoutMs = Long.parseLong(timeoutArg);
+            } catch (NumberFormatException e) {
+                timeoutMs = 0;
+            }
+            if (timeoutMs <= 0) {
+                System.err.println("Invalid --timeout-ms argument: " + timeoutArg + " (must be a positive integer)");
+                System.err.println(USAGE);
+                System.exit(2);
+                return;
+            }
+        }
+
+        List<Path> shards;
+        try {
+            shards = parseShards(args);
+        } catch (IOException e) {
+            System.err.println("Failed to list shards: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        if (shards.isEmpty()) {
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        System.out.println("Sharded run configuration:");
+        System.out.println("  shards = " + shards.size());
+        System.out.println("  workers = " + workers);
+        System.out.println("  timeoutMs = " + timeoutMs);
+
+        Result result;
+        try {
+            result = run(shards, workers, List.of(), timeoutMs);
+        } catch (IOException e) {
+            System.err.println("Sharded run failed: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        System.out.printf("n=%d -> result=%s, candidate=%d, candidateCount=%d%n",
+                result.summary.n, result.majority != null ? result.majority.toString() : "null",
+                result.summary.candidate, result.candidateCount);
+        for (WorkerReport w : result.workers) {
+            System.out.printf("Worker %d (pid %d)%s: tasks=%d, %s%n",
+                    w.id, w.pid, w.crashed ? " CRASHED" : "", w.tasksCompleted, w.metrics);
+        }
+    }
+
+    /**
+     * Runs both rounds over the given shards with the given number of worker processes.
+     * workerJvmArgs are passed to each worker JVM (e.g. -Xmx settings).
+     */
+    public static Result run(List<Path> shards, int workerCount, List<String> workerJvmArgs) throws IOException {
+        return run(shards, workerCount, workerJvmArgs, DEFAULT_COMMAND_TIMEOUT_MS);
+    }
+
+    /**
+     * Same as run(shards, workerCount, workerJvmArgs), but a worker that takes longer than
+     * commandTimeoutMs to answer one command is killed and its shard reassigned.
+     */
+    public static Result run(List<Path> shards, int workerCount, List<String> workerJvmArgs,
+                             long commandTimeoutMs) throws IOException {
+        return run(shards, workerCount, workerJvmArgs, commandTimeoutMs, ShardWorker.class);
+    }
+
+    /**
+     * Launches workerMain instead of ShardWorker in every worker JVM; tests use it to start
+     * workers that crash or stop answering. workerMain receives the worker id as its only argument.
+     */
+    static Result run(List<Path> shards, int workerCount, List<String> workerJvmArgs,
+                      long commandTimeoutMs, Class<?> workerMain) throws IOException {
+        if (commandTimeoutMs <= 0) throw new IllegalArgumentException("commandTimeoutMs must be positive");
+        List<Worker> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < Math.max(1, workerCount); i++) {
+                workers.add(Worker.launch(i, workerJvmArgs, commandTimeoutMs, workerMain));
+            }
+
+            // Round 1: map every shard to a summary, then reduce in shard order
+            List<BoyerMooreMajorityVote.Summary> summaries = runRound(workers, shards, Worker::summarize);
+            BoyerMooreMajorityVote.Summary merged = BoyerMooreMajorityVote.Summary.EMPTY;
+            for (BoyerMooreMajorityVote.Summary s : summaries) merged = merged.merge(s);
+
+            // Round 2: count only the winning candidate
+            int candidate = merged.candidate;
+            List<Long> counts = runRound(workers, shards, (w, shard) -> w.count(shard, candidate));
+            long candidateCount = 0;
+            for (long c : counts) candidateCount += c;
+
+            Integer majority = merged.n > 0 && candidateCount > merged.n / 2 ? candidate : null;
+            List<WorkerReport> reports = new ArrayList<>();
+            for (Worker w : workers) reports.add(w.report);
+            return new Result(majority, merged, candidateCount, reports);
+        } finally {
+            for (Worker w : workers) w.close();
+        }
+    }
+
+    private interface ShardTask<T> {
+        T apply(Worker worker, Path shard) throws IOException, WorkerFailedException;
+    }
+
+    /**
+     * Runs one round: every live worker pulls shard indexes from a shared queue until all shards
+     * are done. A crashed worker puts its shard back; a shard that fails too often, a shard the
+     * worker reports as unreadable, or losing every worker aborts the round.
+     */
+    private static <T> List<T> runRound(List<Worker> workers, List<Path> shards, ShardTask<T> task) throws IOException {
+        AtomicReferenceArray<T> results = new AtomicReferenceArray<>(shards.size());
+        int[] attempts = new int[shards.size()];
+        LinkedBlockingQueue<Integer> queue = new LinkedBlockingQueue<>();
+        for (int i = 0; i < shards.size(); i++) queue.add(i);
+        AtomicInteger remaining = new AtomicInteger(shards.size());
+        AtomicReference<IOException> failure = new AtomicReference<>();
+
+        List<Thread> threads = new ArrayList<>();
+        for (Worker w : workers) {
+            if (w.report.crashed) continue;
+            threads.add(Thread.ofVirtual().name("shard-worker-" + w.report.id).start(() -> {
+                while (remaining.get() > 0 && failure.get() == null) {
+                    Integer index;
+                    try {
+                        index = queue.poll(50, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (index == null) continue;
+                    try {
+                        results.set(index, task.apply(w, shards.get(index)));
+                        w.report.tasksCompleted++;
+                        remaining.decrementAndGet();
+                    } catch (WorkerFailedException e) {
+                        w.markCrashed(e);
+                        synchronized (attempts) {
+                            if (++attempts[index] >= MAX_ATTEMPTS_PER_SHARD) {
+                                failure.compareAndSet(null, new IOException(
+                                        "shard " + shards.get(index) + " failed on " + attempts[index] + " workers"));
+                            }
+                        }
+                        queue.add(index);
+                        return;
+                    } catch (IOException e) {
+                        failure.compareAndSet(null, e);
+                        return;
+                    }
+                }
+            }));
+        }
+        if (threads.isEmpty()) throw new IOException("no live workers left");
+
+        for (Thread t : threads) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while waiting for workers", e);
+            }
+        }
+        if (failure.get() != null) throw failure.get();
+        if (remaining.get() > 0) throw new IOException("all workers crashed with " + remaining.get() + " shard(s) left");
+        List<T> list = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) list.add(results.get(i));
+        return list;
+    }
+
+    /** The worker process died, its pipe broke or it timed out; the shard can be retried elsewhere. */
+    private static final class WorkerFailedException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        WorkerFailedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private static final class Worker implements AutoCloseable {
+        final Process process;
+        final DataOutputStream out;
+        final DataInputStream in;
+        final WorkerReport report;
+        final long timeoutMs;
+
+        private Worker(Process process, int id, long timeoutMs) {
+            this.process = process;
+            this.timeoutMs = timeoutMs;
+            this.out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            this.in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+            this.report = new WorkerReport(id, process.pid());
+        }
+
+        static Worker launch(int id, List<String> jvmArgs, long timeoutMs, Class<?> workerMain) throws IOException {
+            List<String> cmd = new ArrayList<>();
+            cmd.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            cmd.addAll(jvmArgs);
+            cmd.add("-cp");
+            cmd.add(System.getProperty("java.class.path"));
+            cmd.add(workerMain.getName());
+            cmd.add(String.valueOf(id));
+            Process p = new ProcessBuilder(cmd).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            return new Worker(p, id, timeoutMs);
+        }
+
+        BoyerMooreMajorityVote.Summary summarize(Path shard) throws IOException, WorkerFailedException {
+            return exchange(shard, () -> {
+                out.writeByte(ShardProtocol.CMD_SUMMARIZE);
+                out.writeUTF(shard.toString());
+                out.flush();
+                checkStatus(shard);
+                int candidate = in.readInt();
+                long count = in.readLong();
+                long n = in.readLong();
+                readMetrics();
+                return new BoyerMooreMajorityVote.Summary(candidate, count, n);
+            });
+        }
+
+        long count(Path shard, int candidate) throws IOException, WorkerFailedException {
+            return exchange(shard, () -> {
+                out.writeByte(ShardProtocol.CMD_COUNT);
+                out.writeUTF(shard.toString());
+                out.writeInt(candidate);
+                out.flush();
+                checkStatus(shard);
+                long count = in.readLong();
+                in.readLong(); // n, already known from round 1
+                readMetrics();
+                return count;
+            });
+        }
+
+        /**
+         * Runs one command/response exchange on its own thread and waits at most timeoutMs for it.
+         * A timeout or a broken pipe is a worker failure; markCrashed then kills the process,
+         * which also unblocks the abandoned exchange thread.
+         */
+        private <T> T exchange(Path shard, Callable<T> io) throws IOException, WorkerFailedException {
+            FutureTask<T> task = new FutureTask<>(io);
+            Thread.ofVirtual().name("shard-pipe-" + report.id).start(task);
+            try {
+                return task.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                throw new WorkerFailedException("worker " + report.id + " timed out after " + timeoutMs + " ms on " + shard, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof ShardErrorException se) throw se;
+                throw new WorkerFailedException("worker " + report.id + " failed on " + shard, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while waiting for worker " + report.id, e);
+            }
+        }
+
+        /**
+         * Throws ShardErrorException when the worker is alive but could not process the shard.
+         */
+        private void checkStatus(Path shard) throws IOException {
+            byte status = in.readByte();
+            if (status != ShardProtocol.STATUS_OK) {
+                throw new ShardErrorException("worker " + report.id + " could not process " + shard + ": " + in.readUTF());
+            }
+        }
+
+        private void readMetrics() throws IOException {
+            long elapsedNs = in.readLong();
+            long comparisons = in.readLong();
+            long assignments = in.readLong();
+            long iterations = in.readLong();
+            report.metrics.add(comparisons, assignments, iterations, elapsedNs);
+        }
+
+        void markCrashed(Exception cause) {
+            report.crashed = true;
+            System.err.println("Worker " + report.id + " crashed, reassigning its shard: " + cause.getMessage());
+            process.destroyForcibly();
+        }
+
+        @Override
+        public void close() {
+            if (process.isAlive()) {
+                try {
+                    out.writeByte(ShardProtocol.CMD_EXIT);
+                    out.flush();
+                } catch (IOException ignored) {}
+                try {
+                    if (!process.waitFor(2, TimeUnit.SECONDS)) process.destroyForcibly();
+                } catch (InterruptedException e) {
+                    process.destroyForcibly();
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /** Worker is healthy but the shard itself is bad (missing, malformed); not retried. */
+    private static final class ShardErrorException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        ShardErrorException(String message) {
+            super(message);
+        }
+    }
+
+    private static List<Path> parseShards(String[] args) throws IOException {
+        String dir = parseOption(args, "--shard-dir");
+        if (dir != null) {
+            try (Stream<Path> files = Files.list(Path.of(dir))) {
+                return files.filter(Files::isRegularFile).sorted().toList();
+            }
+        }
+        for (int i = 0; i < args.length; i++) {
+            if ("--shards".equals(args[i])) {
+                int j = i + 1;
+                while (j < args.length && !args[j].startsWith("--")) j++;
+                return Arrays.stream(args, i + 1, j).map(Path::of).toList();
+            }
+        }
+        return List.of();
+    }
+
+    private static String parseOption(String[] args, String name) {
+        for (int i = 0; i < args.length; i++) {
+            if (name.equals(args[i]) && i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.shard;
+
+/**
+ * Pipe protocol between ShardCoordinator and ShardWorker (worker stdin/stdout, big-endian).
+ *
+ * Commands:
+ *   CMD_SUMMARIZE, writeUTF path                -> OK: int candidate, long count, long n, metrics
+ *   CMD_COUNT,     writeUTF path, int candidate -> OK: long count, long n, metrics
+ *   CMD_EXIT                                    -> worker exits, no response
+ *
+ * metrics = long elapsedNs, long comparisons, long assignments, long iterations.
+ * Every response starts with STATUS_OK or STATUS_ERROR; ERROR is followed by writeUTF message.
+ */
+final class ShardProtocol {
+
+    static final byte CMD_SUMMARIZE = 1;
+    static final byte CMD_COUNT = 2;
+    static final byte CMD_EXIT = 3;
+
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_ERROR = 1;
+
+    private ShardProtocol() {}
+}
@@ -0,0 +1,92 @@
+package org.example.shard;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+import org.example.algorithms.BoyerMooreMajorityVote;
+import org.example.io.IntTextFiles;
+import org.example.metrics.Metrics;
+
+/**
+ * Worker process launched by ShardCoordinator. Reads ShardProtocol commands from stdin and
+ * answers on stdout; anything the code prints goes to stderr so the pipe stays clean.
+ * Usage: java -cp yourapp.jar org.example.shard.ShardWorker <workerId>
+ */
+public class ShardWorker {
+
+    public static void main(String[] args) throws IOException {
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        System.setOut(new PrintStream(new FileOutputStream(FileDescriptor.err), true));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+
+        while (true) {
+            byte cmd;
+            try {
+                cmd = in.readByte();
+            } catch (EOFException e) {
+                return; // coordinator went away
+            }
+            switch (cmd) {
+                case ShardProtocol.CMD_SUMMARIZE: {
+                    Path path = Path.of(in.readUTF());
+                    try {
+                        int[] arr = IntTextFiles.readInts(path);
+                        Metrics m = new Metrics(false);
+                        BoyerMooreMajorityVote.Summary s = BoyerMooreMajorityVote.summarize(arr, arr.length, m);
+                        out.writeByte(ShardProtocol.STATUS_OK);
+                        out.writeInt(s.candidate);
+                        out.writeLong(s.count);
+                        out.writeLong(s.n);
+                        writeMetrics(out, m);
+                    } catch (IOException e) {
+                        writeError(out, e);
+                    }
+                    break;
+                }
+                case ShardProtocol.CMD_COUNT: {
+                    Path path = Path.of(in.readUTF());
+                    int candidate = in.readInt();
+                    try {
+                        int[] arr = IntTextFiles.readInts(path);
+                        Metrics m = new Metrics(false);
+                        long count = BoyerMooreMajorityVote.countOccurrences(arr, arr.length, candidate, m);
+                        out.writeByte(ShardProtocol.STATUS_OK);
+                        out.writeLong(count);
+                        out.writeLong(arr.length);
+                        writeMetrics(out, m);
+                    } catch (IOException e) {
+                        writeError(out, e);
+                    }
+                    break;
+                }
+                case ShardProtocol.CMD_EXIT:
+                    out.flush();
+                    return;
+                default:
+                    writeError(out, new IOException("unknown command " + cmd));
+            }
+            out.flush();
+        }
+    }
+
+    private static void writeMetrics(DataOutputStream out, Metrics m) throws IOException {
+        out.writeLong(m.getElapsedNs());
+        out.writeLong(m.getComparisons());
+        out.writeLong(m.getAssignments());
+        out.writeLong(m.getIterations());
+    }
+
+    private static void writeError(DataOutputStream out, IOException e) throws IOException {
+        out.writeByte(ShardProtocol.STATUS_ERROR);
+        out.writeUTF(String.valueOf(e.getMessage()));
+    }
+}
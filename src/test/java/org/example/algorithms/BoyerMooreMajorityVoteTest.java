@@ -1,5 +1,6 @@
 package org.example.algorithms;
 
+import org.example.metrics.Metrics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.RepeatedTest;
@@ -80,6 +81,27 @@ class BoyerMooreMajorityVoteTest {
         }
     }
 
+    @Test
+    @DisplayName("Property-based: merged shard summaries find the same majority")
+    void testMergedSummariesPropertyBased() {
+        for (int t = 0; t < 50; ++t) {
+            int n = ThreadLocalRandom.current().nextInt(0, 201);
+            int[] arr = ThreadLocalRandom.current().ints(n, 0, 3).toArray();
+            BoyerMooreMajorityVote.Summary merged = BoyerMooreMajorityVote.Summary.EMPTY;
+            int from = 0;
+            while (from < n) {
+                int to = Math.min(n, from + ThreadLocalRandom.current().nextInt(1, 40));
+                int[] shard = Arrays.copyOfRange(arr, from, to);
+                merged = merged.merge(BoyerMooreMajorityVote.summarize(shard, shard.length, new Metrics(false)));
+                from = to;
+            }
+            assertEquals(n, merged.n);
+            long freq = BoyerMooreMajorityVote.countOccurrences(arr, n, merged.candidate, new Metrics(false));
+            Integer actual = freq > n / 2 ? merged.candidate : null;
+            assertEquals(bruteForceMajority(arr), actual, "Merged summary property-based test failed");
+        }
+    }
+
     // --- Cross-Validation with Java Streams/Map ---
     @Test
     @DisplayName("Cross-validation: Streams frequency check")
@@ -0,0 +1,181 @@
+package org.example.cli;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BenchmarkRegressionGateTest {
+
+    @TempDir
+    Path dir;
+
+    private static final String HEADER = "timestamp,algorithm,n,time_ms,comparisons,assignments,iterations,memory_bytes\n";
+
+    private Path csv(String name, double... timesFor1000) throws IOException {
+        StringBuilder sb = new StringBuilder(HEADER);
+        for (double t : timesFor1000) {
+            sb.append("2025-10-10T10:43:29Z,BoyerMooreMajorityVote,1000,").append(t).append(",3001,1501,2000,0\n");
+        }
+        return Files.writeString(dir.resolve(name), sb.toString());
+    }
+
+    private static String jmhJson(String mode, double score, double low, double high) {
+        return "[{\"benchmark\":\"org.example.bench.BoyerMooreJmhBenchmark.bench_findMajority_noMetrics\","
+                + "\"mode\":\"" + mode + "\",\"params\":{\"n\":\"1000\",\"distribution\":\"random\",\"withMetrics\":\"false\"},"
+                + "\"primaryMetric\":{\"score\":" + score + ",\"scoreError\":\"NaN\","
+                + "\"scoreConfidence\":[" + low + "," + high + "],\"scoreUnit\":\"ms/op\","
+                + "\"rawData\":[[" + low + "," + score + "," + high + "]]}}]";
+    }
+
+    private int gate(Path base, Path cur, String... extra) {
+        String[] args = new String[4 + extra.length];
+        args[0] = "--baseline";
+        args[1] = base.toString();
+        args[2] = "--current";
+        args[3] = cur.toString();
+        System.arraycopy(extra, 0, args, 4, extra.length);
+        return BenchmarkRegressionGate.run(args);
+    }
+
+    @Test
+    @DisplayName("CSV: same timings pass the gate")
+    void testCsvNoRegression() throws IOException {
+        Path base = csv("base.csv", 1.0, 1.1, 0.9);
+        Path cur = csv("cur.csv", 1.05, 0.95, 1.0);
+        assertEquals(0, BenchmarkRegressionGate.run(new String[]{
+                "--baseline", base.toString(), "--current", cur.toString()}));
+    }
+
+    @Test
+    @DisplayName("CSV: clearly slower timings fail the gate")
+    void testCsvRegression() throws IOException {
+        Path base = csv("base.csv", 1.0, 1.01, 0.99);
+        Path cur = csv("cur.csv", 2.0, 2.01, 1.99);
+        assertEquals(1, BenchmarkRegressionGate.run(new String[]{
+                "--baseline", base.toString(), "--current", cur.toString(), "--threshold", "10"}));
+    }
+
+    @Test
+    @DisplayName("CSV: slowdown within overlapping confidence intervals is not a regression")
+    void testCsvOverlappingIntervals() throws IOException {
+        Path base = csv("base.csv", 1.0, 0.5, 1.5);
+        Path cur = csv("cur.csv", 1.3, 0.8, 1.8);
+        assertEquals(0, BenchmarkRegressionGate.run(new String[]{
+                "--baseline", base.toString(), "--current", cur.toString(), "--threshold", "5"}));
+    }
+
+    @Test
+    @DisplayName("JMH JSON: average time increase beyond threshold fails the gate")
+    void testJmhJsonRegression() throws IOException {
+        Path base = Files.writeString(dir.resolve("base.json"), jmhJson("avgt", 0.010, 0.009, 0.011));
+        Path cur = Files.writeString(dir.resolve("cur.json"), jmhJson("avgt", 0.020, 0.019, 0.021));
+        assertEquals(1, BenchmarkRegressionGate.run(new String[]{
+                "--baseline", base.toString(), "--current", cur.toString()}));
+        // the reverse direction is an improvement, not a regression
+        assertEquals(0, BenchmarkRegressionGate.run(new String[]{
+                "--baseline", cur.toString(), "--current", base.toString()}));
+    }
+
+    @Test
+    @DisplayName("JMH JSON: throughput mode treats higher scores as better")
+    void testJmhJsonThroughput() {
+        List<BenchmarkRegressionGate.Cell> base = BenchmarkRegressionGate.parseJmhJson(jmhJson("thrpt", 100, 95, 105));
+        List<BenchmarkRegressionGate.Cell> cur = BenchmarkRegressionGate.parseJmhJson(jmhJson("thrpt", 50, 45, 55));
+        assertEquals("BoyerMooreJmhBenchmark.bench_findMajority_noMetrics[withMetrics=false]", base.get(0).benchmark);
+        double slowdown = BenchmarkRegressionGate.slowdownPercent(base.get(0), cur.get(0));
+        assertEquals(50.0, slowdown, 1e-9);
+        assertEquals(BenchmarkRegressionGate.Status.REGRESSION,
+                BenchmarkRegressionGate.classify(base.get(0), cur.get(0), slowdown, 10));
+    }
+
+    @Test
+    @DisplayName("CSV: single-sample cells are inconclusive and do not fail the gate")
+    void testSingleSampleInconclusive() throws IOException {
+        Path base = csv("base.csv", 1.0);
+        Path cur = csv("cur.csv", 2.0, 2.01, 1.99);
+        assertEquals(0, gate(base, cur));
+        assertEquals(1, gate(csv("base3.csv", 1.0, 1.01, 0.99), cur));
+    }
+
+    @Test
+    @DisplayName("Baseline cell missing from the current run fails unless allowed")
+    void testMissingCell() throws IOException {
+        Path base = Files.writeString(dir.resolve("base.csv"), HEADER
+                + "t,BoyerMooreMajorityVote,1000,1.0,0,0,0,0\nt,BoyerMooreMajorityVote,1000,1.0,0,0,0,0\n"
+                + "t,BoyerMooreMajorityVote,5000,5.0,0,0,0,0\nt,BoyerMooreMajorityVote,5000,5.0,0,0,0,0\n");
+        Path cur = csv("cur.csv", 1.0, 1.0);
+        assertEquals(1, gate(base, cur));
+        assertEquals(0, gate(base, cur, "--allow-missing"));
+    }
+
+    @Test
+    @DisplayName("No shared cell or mixed formats is an input error")
+    void testNothingToCompare() throws IOException {
+        Path base = csv("base.csv", 1.0, 1.1, 0.9);
+        Path headerOnly = Files.writeString(dir.resolve("empty.csv"), HEADER);
+        assertEquals(2, gate(base, headerOnly));
+        assertEquals(2, gate(base, headerOnly, "--allow-missing"));
+
+        Path json = Files.writeString(dir.resolve("cur.json"), jmhJson("avgt", 1.0, 0.9, 1.1));
+        assertEquals(2, gate(base, json));
+    }
+
+    @Test
+    @DisplayName("Malformed CSV rows and JSON shapes are reported as input errors")
+    void testMalformedInput() throws IOException {
+        Path base = csv("base.csv", 1.0, 1.1, 0.9);
+        Path shortRow = Files.writeString(dir.resolve("short.csv"), HEADER + "t,BoyerMooreMajorityVote\n");
+        assertEquals(2, gate(base, shortRow));
+        Path badNumber = Files.writeString(dir.resolve("bad.csv"), HEADER + "t,BoyerMooreMajorityVote,x,1.0,0,0,0,0\n");
+        assertEquals(2, gate(base, badNumber));
+
+        Path jsonBase = Files.writeString(dir.resolve("base.json"), jmhJson("avgt", 1.0, 0.9, 1.1));
+        for (String bad : new String[]{"[1]", "[{\"benchmark\":3}]", "[{\"benchmark\":\"a.b\",\"mode\":\"avgt\"}]",
+                "[{\"benchmark\":\"a.b\",\"mode\":\"avgt\",\"primaryMetric\":{\"score\":true}}]", "[\"\\\\", "[\"\\", "[{\"benchmark\""}) {
+            Path cur = Files.writeString(dir.resolve("bad.json"), bad);
+            assertEquals(2, gate(jsonBase, cur), bad);
+        }
+    }
+
+    @Test
+    @DisplayName("Threshold that is not finite or is negative is rejected")
+    void testInvalidThreshold() throws IOException {
+        Path base = csv("base.csv", 1.0, 1.01, 0.99);
+        Path cur = csv("cur.csv", 5.0, 5.01, 4.99);
+        for (String bad : new String[]{"NaN", "Infinity", "-Infinity", "-50", "abc"}) {
+            assertEquals(2, gate(base, cur, "--threshold", bad), bad);
+        }
+        assertEquals(1, gate(base, cur, "--threshold", "0"));
+
+        // a 10% speed-up with a zero threshold is an improvement, not a regression
+        Path faster = csv("faster.csv", 0.9, 0.91, 0.89);
+        assertEquals(0, gate(base, faster, "--threshold", "0"));
+    }
+
+    @Test
+    @DisplayName("CSV cells are keyed by (algorithm, n) only and --baseline is required")
+    void testCsvCellKey() throws IOException {
+        List<BenchmarkRegressionGate.Cell> cells = BenchmarkRegressionGate.parseMetricsCsv(
+                Files.readString(csv("base.csv", 1.0, 2.0, 3.0)));
+        assertEquals(1, cells.size());
+        assertEquals("-", cells.get(0).distribution);
+        assertEquals(3, cells.get(0).samples);
+
+        assertEquals(2, BenchmarkRegressionGate.run(new String[]{"--current", csv("cur.csv", 1.0, 1.0).toString()}));
+    }
+
+    @Test
+    @DisplayName("Missing current file is reported as an input error")
+    void testMissingInput() {
+        assertEquals(2, BenchmarkRegressionGate.run(new String[]{
+                "--baseline", dir.resolve("none.csv").toString(), "--current", dir.resolve("none.csv").toString()}));
+        assertEquals(2, BenchmarkRegressionGate.run(new String[]{}));
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MajorityCallStatsTest {
+
+    @Test
+    @DisplayName("Histogram: bucket upper bound stays within 12.5% of the value")
+    void testHistogramPrecision() {
+        for (long v : new long[]{0, 1, 15, 16, 17, 1000, 123_456, 987_654_321L, Long.MAX_VALUE / 3}) {
+            long upper = LatencyHistogram.upperBound(LatencyHistogram.indexOf(v));
+            assertTrue(upper >= v, "upper bound below value " + v);
+            assertTrue(upper - v <= v / 8, "bucket too wide for " + v);
+        }
+    }
+
+    @Test
+    @DisplayName("Histogram: percentiles follow recorded distribution")
+    void testHistogramPercentiles() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) h.record(i * 1000L);
+        assertEquals(1000, h.getCount());
+        assertEquals(1_000_000, h.getMax());
+        assertEquals(500_000, h.percentile(50), 500_000 / 8.0);
+        assertEquals(990_000, h.percentile(99), 990_000 / 8.0);
+        assertEquals(1_000_000, h.percentile(100));
+    }
+
+    @Test
+    @DisplayName("Stats: aggregates calls, elements and rate; reset clears them")
+    void testStatsAggregates() throws InterruptedException {
+        MajorityCallStats stats = new MajorityCallStats();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 250; i++) stats.record(100, 5_000, i % 2 == 0);
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) t.join();
+
+        assertEquals(1000, stats.getTotalCalls());
+        assertEquals(100_000, stats.getTotalElementsProcessed());
+        assertEquals(500, stats.getMajorityFoundCalls());
+        assertTrue(stats.getCallRatePerSecond() > 0 && stats.getCallRatePerSecond() <= 1000 / 60.0);
+        assertTrue(stats.getLatencyP99Ns() >= 5_000);
+
+        stats.reset();
+        assertEquals(0, stats.getTotalCalls());
+        assertEquals(0.0, stats.getCallRatePerSecond());
+    }
+
+    @Test
+    @DisplayName("Stats: rate and latency cover the last minute only, also for negative nanoTime")
+    void testRollingWindow() {
+        for (long start : new long[]{0L, -3_600_000_000_000L}) {
+            long[] now = {start};
+            MajorityCallStats stats = new MajorityCallStats(() -> now[0]);
+
+            for (int i = 0; i < 60; i++) stats.record(10, 1_000_000, false);
+            now[0] += 30_000_000_000L;
+            for (int i = 0; i < 60; i++) stats.record(10, 1_000, false);
+
+            assertEquals(2.0, stats.getCallRatePerSecond(), 1e-9);
+            assertEquals(1_000_000, stats.getLatencyMaxNs());
+            assertTrue(stats.getLatencyP99Ns() >= 1_000_000 * 7 / 8);
+
+            // 45s later the slow calls left the window, the fast ones are still in it
+            now[0] += 45_000_000_000L;
+            assertEquals(1.0, stats.getCallRatePerSecond(), 1e-9);
+            assertTrue(stats.getLatencyMaxNs() < 2_000);
+            assertTrue(stats.getLatencyP99Ns() < 2_000);
+
+            now[0] += 60_000_000_000L;
+            assertEquals(0.0, stats.getCallRatePerSecond());
+            assertEquals(0, stats.getLatencyP50Ns());
+            assertEquals(120, stats.getTotalCalls(), "totals stay cumulative");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.metrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.example.algorithms.BoyerMooreMajorityVote;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MajorityTelemetryTest {
+
+    @TempDir
+    Path dir;
+
+    private List<RecordedEvent> record(Runnable calls) throws IOException {
+        Path file = dir.resolve("calls.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.example.MajorityCall");
+            recording.start();
+            calls.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("org.example.MajorityCall"))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("JFR: findMajority emits one MajorityCall event with size, strategy, result and counters")
+    void testJfrEvent() throws IOException {
+        int[] withMajority = {4, 1, 4, 4, 2};
+        int[] noMajority = {1, 2, 3, 4};
+        List<RecordedEvent> events = record(() -> {
+            BoyerMooreMajorityVote.findMajority(withMajority, new Metrics(false));
+            BoyerMooreMajorityVote.findMajority(noMajority, new Metrics(false));
+        });
+
+        assertEquals(2, events.size());
+        RecordedEvent first = events.get(0);
+        assertEquals(5, first.getInt("size"));
+        assertEquals(MajorityTelemetry.STRATEGY_CALLER_METRICS, first.getString("strategy"));
+        assertTrue(first.getBoolean("majorityFound"));
+        assertEquals(16, first.getLong("comparisons"));
+        assertEquals(10, first.getLong("iterations"));
+        assertTrue(first.getLong("assignments") > 0);
+        assertTrue(first.getLong("elapsed") >= 0);
+
+        RecordedEvent second = events.get(1);
+        assertEquals(4, second.getInt("size"));
+        assertFalse(second.getBoolean("majorityFound"));
+    }
+
+    @Test
+    @DisplayName("JFR: the instance path is reported with the internal-metrics strategy")
+    void testJfrEventInternalMetrics() throws IOException {
+        List<RecordedEvent> events = record(() -> BoyerMooreMajorityVote.majorityElement(new int[]{7, 7, 1}));
+        assertEquals(1, events.size());
+        assertEquals(MajorityTelemetry.STRATEGY_INTERNAL_METRICS, events.get(0).getString("strategy"));
+        assertEquals(3, events.get(0).getInt("size"));
+        assertTrue(events.get(0).getBoolean("majorityFound"));
+    }
+
+    @Test
+    @DisplayName("JFR: no events are committed when the event is not enabled")
+    void testJfrDisabled() throws IOException {
+        Path file = dir.resolve("none.jfr");
+        try (Recording recording = new Recording()) {
+            recording.start();
+            BoyerMooreMajorityVote.findMajority(new int[]{1, 1}, new Metrics(false));
+            recording.stop();
+            recording.dump(file);
+        }
+        assertTrue(RecordingFile.readAllEvents(file).stream()
+                .noneMatch(e -> e.getEventType().getName().equals("org.example.MajorityCall")));
+    }
+}
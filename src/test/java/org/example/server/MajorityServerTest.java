@@ -0,0 +1,254 @@
+package org.example.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MajorityServerTest {
+
+    @TempDir
+    Path dir;
+
+    private MajorityServer server;
+    private Socket socket;
+    private DataInputStream in;
+    private DataOutputStream out;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = MajorityServer.startTcp(0, 16, 8);
+        socket = new Socket();
+        socket.connect(server.getLocalAddress());
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        socket.close();
+        server.close();
+    }
+
+    private void sendArray(int[] arr) throws IOException {
+        out.writeByte(MajorityProtocol.TYPE_INT_ARRAY);
+        out.writeInt(arr.length);
+        for (int v : arr) out.writeInt(v);
+    }
+
+    private void sendPath(Path path) throws IOException {
+        byte[] bytes = path.toString().getBytes(StandardCharsets.UTF_8);
+        out.writeByte(MajorityProtocol.TYPE_FILE_PATH);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /** Reads one OK response and returns the candidate, or null when there is no majority. */
+    private Integer readResult(int expectedN) throws IOException {
+        assertEquals(MajorityProtocol.STATUS_OK, in.readByte(), "expected OK response");
+        boolean has = in.readBoolean();
+        int candidate = in.readInt();
+        assertEquals(expectedN, in.readInt());
+        in.readLong(); // elapsedNs
+        long comparisons = in.readLong();
+        in.readLong(); // assignments
+        long iterations = in.readLong();
+        if (expectedN > 0) {
+            assertEquals(2L * expectedN, iterations);
+            assertEquals(3L * expectedN + 1, comparisons);
+        }
+        return has ? candidate : null;
+    }
+
+    @Test
+    @DisplayName("Server: single array request returns majority and metrics")
+    void testSingleRequest() throws IOException {
+        sendArray(new int[]{3, 1, 3, 3, 2});
+        out.flush();
+        assertEquals(3, readResult(5));
+    }
+
+    @Test
+    @DisplayName("Server: pipelined requests are answered in order")
+    void testPipelining() throws IOException {
+        int requests = 200;
+        int[][] inputs = new int[requests][];
+        for (int r = 0; r < requests; r++) {
+            int n = ThreadLocalRandom.current().nextInt(1, 5000);
+            inputs[r] = new int[n];
+            boolean majority = r % 2 == 0;
+            for (int i = 0; i < n; i++) {
+                inputs[r][i] = majority && i <= n / 2 ? r : ThreadLocalRandom.current().nextInt(-1_000_000, -1);
+            }
+        }
+        Thread sender = new Thread(() -> {
+            try {
+                for (int[] arr : inputs) sendArray(arr);
+                out.flush();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        sender.start();
+        for (int r = 0; r < requests; r++) {
+            Integer result = readResult(inputs[r].length);
+            if (r % 2 == 0) assertEquals(r, result, "request " + r);
+        }
+        assertDoesNotThrow(() -> sender.join());
+    }
+
+    @Test
+    @DisplayName("Server: file path request reads whitespace/comma separated integers")
+    void testFileRequest() throws IOException {
+        Path file = Files.writeString(dir.resolve("data.txt"), "7, 7 -2\n7,8\n7 -2147483648\n");
+        sendPath(file);
+        sendArray(new int[0]);
+        out.flush();
+        assertEquals(7, readResult(7));
+        assertNull(readResult(0));
+    }
+
+    @Test
+    @DisplayName("Server: unreadable file returns an error and keeps the connection usable")
+    void testErrorResponse() throws IOException {
+        sendPath(dir.resolve("missing.txt"));
+        sendArray(new int[]{1});
+        out.flush();
+        assertEquals(MajorityProtocol.STATUS_ERROR, in.readByte());
+        assertTrue(in.readUTF().contains("missing.txt"));
+        assertEquals(1, readResult(1));
+    }
+
+    @Test
+    @DisplayName("Server: close stops accepting new connections")
+    void testClose() throws IOException {
+        InetSocketAddress address = (InetSocketAddress) server.getLocalAddress();
+        server.close();
+        assertThrows(IOException.class, () -> {
+            try (Socket s = new Socket(address.getAddress(), address.getPort())) {
+                s.getOutputStream().write(1);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Server: close() still answers every request it already read")
+    void testCloseDrainsPipelinedRequests() throws Exception {
+        // a big file keeps the first response pending while the small ones queue up behind it
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 6_000_000; i++) sb.append(i % 3 == 0 ? 9 : 8).append(' ');
+        Path big = Files.writeString(dir.resolve("big.txt"), sb);
+
+        try (MajorityServer drainServer = MajorityServer.startTcp(0, 64, 64);
+             Socket s = new Socket()) {
+            s.connect(drainServer.getLocalAddress());
+            DataOutputStream o = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+            in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            out = o;
+            sendPath(big);
+            int requests = 40;
+            for (int r = 0; r < requests; r++) sendArray(new int[]{r, r, 1});
+            o.flush();
+            Thread.sleep(50); // long enough to read every frame, far shorter than parsing the file
+
+            drainServer.close();
+
+            assertEquals(8, readResult(6_000_000));
+            for (int r = 0; r < requests; r++) assertEquals(r == 1 ? 1 : r, readResult(3), "request " + r);
+            assertEquals(-1, in.read(), "connection is closed after draining");
+        }
+    }
+
+    @Test
+    @DisplayName("Server: requests beyond the buffer budget are rejected, smaller ones wait for it")
+    void testBufferBudget() throws IOException {
+        try (MajorityServer small = MajorityServer.startTcp(0, 16, 8, 1); // 1 MiB = 262144 ints
+             Socket s = new Socket()) {
+            s.connect(small.getLocalAddress());
+            out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+            in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+
+            sendArray(new int[300_000]);
+            for (int r = 0; r < 4; r++) sendArray(new int[200_000]);
+            out.flush();
+
+            assertEquals(MajorityProtocol.STATUS_ERROR, in.readByte());
+            assertTrue(in.readUTF().contains("out of range"));
+            for (int r = 0; r < 4; r++) assertEquals(0, readResult(200_000));
+        }
+    }
+
+    @Test
+    @DisplayName("Server: limits that are zero or negative are rejected before binding")
+    void testInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> MajorityServer.startTcp(0, 0, 8));
+        assertThrows(IllegalArgumentException.class, () -> MajorityServer.startTcp(0, 16, 0));
+        assertThrows(IllegalArgumentException.class, () -> MajorityServer.startTcp(0, 16, 8, -1));
+        assertThrows(IllegalArgumentException.class, () -> MajorityServer.startUnix(dir.resolve("s.sock"), 16, 8, 0));
+        assertFalse(Files.exists(dir.resolve("s.sock")));
+    }
+
+    @Test
+    @DisplayName("Server: only a stale socket file is replaced")
+    void testUnixSocketFile() throws IOException {
+        Path regular = Files.writeString(dir.resolve("data.sock"), "keep me");
+        assertThrows(IOException.class, () -> MajorityServer.startUnix(regular, 16, 8, 16));
+        assertEquals("keep me", Files.readString(regular));
+
+        Path sock = dir.resolve("live.sock");
+        try (MajorityServer live = MajorityServer.startUnix(sock, 16, 8, 16)) {
+            assertThrows(IOException.class, () -> MajorityServer.startUnix(sock, 16, 8, 16));
+            try (SocketChannel ch = SocketChannel.open(UnixDomainSocketAddress.of(sock))) {
+                assertTrue(ch.isConnected(), "first server keeps its socket");
+            }
+        }
+
+        // a socket file whose server is gone is replaced
+        Path stale = dir.resolve("stale.sock");
+        ServerSocketChannel.open(StandardProtocolFamily.UNIX).bind(UnixDomainSocketAddress.of(stale)).close();
+        assertTrue(Files.exists(stale));
+        try (MajorityServer restarted = MajorityServer.startUnix(stale, 16, 8, 16);
+             SocketChannel ch = SocketChannel.open(UnixDomainSocketAddress.of(stale))) {
+            assertTrue(ch.isConnected());
+        }
+    }
+
+    @Test
+    @DisplayName("Buffer pool: reuses released buffers and caps what it retains")
+    void testBufferPool() {
+        IntBufferPool pool = new IntBufferPool(4096);
+        int[] a = pool.acquire(1500);
+        assertEquals(2048, a.length);
+        pool.release(a);
+        assertSame(a, pool.acquire(2000));
+        assertEquals(1024, pool.acquire(1).length);
+
+        pool.release(new int[2048]);
+        pool.release(new int[2048]);
+        pool.release(new int[2048]);
+        assertEquals(4096, pool.getRetainedInts());
+
+        // classes above 2^20 ints are neither pooled nor rounded up
+        assertEquals(3_000_000, IntBufferPool.capacityFor(3_000_000));
+        assertEquals(3_000_000, pool.acquire(3_000_000).length);
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.shard;
+
+import java.io.IOException;
+
+/**
+ * Test worker: worker 0 halts as soon as it receives its first command, the others behave
+ * like ShardWorker.
+ */
+public class CrashingShardWorker {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("0")) {
+            System.in.read();
+            Runtime.getRuntime().halt(3);
+        }
+        ShardWorker.main(args);
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.shard;
+
+import java.io.IOException;
+
+/**
+ * Test worker: worker 1 stops answering once it receives its first command, the others behave
+ * like ShardWorker.
+ */
+public class HangingShardWorker {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("1")) {
+            System.in.read();
+            Thread.sleep(Long.MAX_VALUE);
+        }
+        ShardWorker.main(args);
+    }
+}
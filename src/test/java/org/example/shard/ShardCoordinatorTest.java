@@ -0,0 +1,100 @@
+package org.example.shard;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardCoordinatorTest {
+
+    @TempDir
+    Path dir;
+
+    /** Writes shards whose concatenation has `majority` in slightly more than half of n positions. */
+    private List<Path> writeShards(int shardCount, int perShard, Integer majority) throws IOException {
+        int n = shardCount * perShard;
+        int[] all = new int[n];
+        for (int i = 0; i < n; i++) {
+            all[i] = majority != null && i <= n / 2 ? majority : ThreadLocalRandom.current().nextInt(1000, 2000);
+        }
+        // shuffle so the majority is spread over all shards
+        for (int i = n - 1; i > 0; i--) {
+            int j = ThreadLocalRandom.current().nextInt(i + 1);
+            int tmp = all[i]; all[i] = all[j]; all[j] = tmp;
+        }
+        List<Path> shards = new ArrayList<>();
+        for (int s = 0; s < shardCount; s++) {
+            String text = IntStream.range(s * perShard, (s + 1) * perShard)
+                    .mapToObj(i -> Integer.toString(all[i])).collect(Collectors.joining(s % 2 == 0 ? " " : ",\n"));
+            shards.add(Files.writeString(dir.resolve("shard-" + s + ".txt"), text));
+        }
+        return shards;
+    }
+
+    @Test
+    @DisplayName("Sharded: merged summaries find the majority and report per-worker metrics")
+    void testMajorityAcrossShards() throws IOException {
+        List<Path> shards = writeShards(6, 500, -7);
+        ShardCoordinator.Result result = ShardCoordinator.run(shards, 3, List.of());
+
+        assertEquals(-7, result.majority);
+        assertEquals(3000, result.summary.n);
+        assertEquals(1501, result.candidateCount);
+        assertEquals(3, result.workers.size());
+        assertEquals(12, result.workers.stream().mapToInt(w -> w.tasksCompleted).sum());
+        assertEquals(2L * 3000, result.workers.stream().mapToLong(w -> w.metrics.getIterations()).sum());
+    }
+
+    @Test
+    @DisplayName("Sharded: no majority returns null")
+    void testNoMajority() throws IOException {
+        List<Path> shards = writeShards(4, 200, null);
+        ShardCoordinator.Result result = ShardCoordinator.run(shards, 2, List.of());
+        assertNull(result.majority);
+    }
+
+    @Test
+    @DisplayName("Sharded: a crashed worker's shards are reassigned")
+    void testWorkerCrash() throws IOException {
+        List<Path> shards = writeShards(12, 200, 42);
+        ShardCoordinator.Result result = ShardCoordinator.run(shards, 3, List.of(),
+                ShardCoordinator.DEFAULT_COMMAND_TIMEOUT_MS, CrashingShardWorker.class);
+
+        assertEquals(42, result.majority);
+        assertTrue(result.workers.get(0).crashed);
+        assertEquals(0, result.workers.get(0).tasksCompleted);
+        assertEquals(24, result.workers.stream().mapToInt(w -> w.tasksCompleted).sum());
+    }
+
+    @Test
+    @DisplayName("Sharded: a worker that stops answering times out and its shards are reassigned")
+    void testWorkerTimeout() throws IOException {
+        List<Path> shards = writeShards(6, 200, 5);
+        long start = System.nanoTime();
+        ShardCoordinator.Result result = ShardCoordinator.run(shards, 3, List.of(), 3000, HangingShardWorker.class);
+
+        assertEquals(5, result.majority);
+        assertTrue(result.workers.get(1).crashed);
+        assertEquals(0, result.workers.get(1).tasksCompleted);
+        assertEquals(12, result.workers.stream().mapToInt(w -> w.tasksCompleted).sum());
+        assertTrue(System.nanoTime() - start < 30_000_000_000L, "hung worker must not block the run");
+    }
+
+    @Test
+    @DisplayName("Sharded: an unreadable shard fails the run instead of being retried")
+    void testMissingShard() {
+        List<Path> shards = List.of(dir.resolve("missing.txt"));
+        IOException e = assertThrows(IOException.class, () -> ShardCoordinator.run(shards, 2, List.of()));
+        assertTrue(e.getMessage().contains("missing.txt"));
+    }
+}